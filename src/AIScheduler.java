@@ -0,0 +1,130 @@
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Spreads expensive enemy AI work across frames.
+ * Enemies submit jobs (BFS path refresh, target selection, line-of-sight checks)
+ * instead of running them inline; each frame the scheduler drains its FIFO queue
+ * until the operation or time budget is spent. An enemy that re-submits always lands
+ * at the back of the queue, which gives fair round-robin service when many jobs
+ * expire on the same frame. Cheap per-frame movement runs in EnemyManager's
+ * systems every tick and is never deferred.
+ */
+public class AIScheduler {
+    // Kinds of deferrable AI work
+    public enum JobType {
+        PATH_REFRESH,     // Follower BFS towards the player
+        TARGET_SELECTION, // Wanderer picks its next heading
+        LINE_OF_SIGHT     // Shooter and boss visibility of the player
+    }
+
+    private record Job(Enemy enemy, JobType type) {}
+
+    public static final int DEFAULT_MAX_JOBS_PER_FRAME = 4;
+    public static final long DEFAULT_TIME_BUDGET_NANOS = 1_000_000; // 1 ms
+
+    private final int maxJobsPerFrame;
+    private final long timeBudgetNanos;
+    private final ArrayDeque<Job> queue = new ArrayDeque<>();
+    private final Set<Job> queued = new HashSet<>();
+
+    // Counters (per job type)
+    private final long[] pendingByType = new long[JobType.values().length];
+    private final long[] executedByType = new long[JobType.values().length];
+    private final long[] deferredByType = new long[JobType.values().length];
+    private long framesOverBudget; // Frames that ended with work still queued
+
+    public AIScheduler() {
+        this(DEFAULT_MAX_JOBS_PER_FRAME, DEFAULT_TIME_BUDGET_NANOS);
+    }
+
+    public AIScheduler(int maxJobsPerFrame, long timeBudgetNanos) {
+        this.maxJobsPerFrame = Math.max(1, maxJobsPerFrame);
+        this.timeBudgetNanos = timeBudgetNanos;
+    }
+
+    // Queues a job; returns false if the same job is already waiting
+    public boolean submit(Enemy enemy, JobType type) {
+        Job job = new Job(enemy, type);
+        if (!queued.add(job)) return false;
+        queue.add(job);
+        pendingByType[type.ordinal()]++;
+        return true;
+    }
+
+    public boolean isQueued(Enemy enemy, JobType type) {
+        return queued.contains(new Job(enemy, type));
+    }
+
+    // Runs queued jobs until the per-frame budget is spent (always at least one)
+    public void runFrame(Player player, GameMap gameMap) {
+        long start = System.nanoTime();
+        int executed = 0;
+        while (!queue.isEmpty()) {
+            if (executed >= maxJobsPerFrame) break;
+            if (executed > 0 && System.nanoTime() - start >= timeBudgetNanos) break;
+
+            Job job = queue.poll();
+            queued.remove(job);
+            pendingByType[job.type().ordinal()]--;
+            if (!job.enemy().isAlive()) continue; // Dead enemies just drop their work
+
+            job.enemy().runScheduledJob(job.type(), player, gameMap);
+            executedByType[job.type().ordinal()]++;
+            executed++;
+        }
+
+        if (!queue.isEmpty()) {
+            framesOverBudget++;
+            for (int i = 0; i < pendingByType.length; i++) {
+                deferredByType[i] += pendingByType[i];
+            }
+        }
+    }
+
+    // Drops all queued work (used when the active room changes)
+    public void clear() {
+        queue.clear();
+        queued.clear();
+        Arrays.fill(pendingByType, 0);
+    }
+
+    // COUNTERS
+
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    public long getExecutedCount(JobType type) {
+        return executedByType[type.ordinal()];
+    }
+
+    // Sum over frames of the jobs of this type that were left waiting at frame end
+    public long getDeferredCount(JobType type) {
+        return deferredByType[type.ordinal()];
+    }
+
+    public long getFramesOverBudget() {
+        return framesOverBudget;
+    }
+
+    // Restarts the executed/deferred counters (benchmarks, after warm-up)
+    public void resetCounters() {
+        Arrays.fill(executedByType, 0);
+        Arrays.fill(deferredByType, 0);
+        framesOverBudget = 0;
+    }
+
+    public String describeCounters() {
+        StringBuilder text = new StringBuilder("ai scheduler:");
+        for (JobType type : JobType.values()) {
+            text.append(String.format(Locale.ROOT, " %s %d run/%d deferred,",
+                    type.name().toLowerCase(Locale.ROOT), getExecutedCount(type), getDeferredCount(type)));
+        }
+        text.append(' ').append(framesOverBudget).append(" frames over budget");
+        return text.toString();
+    }
+}
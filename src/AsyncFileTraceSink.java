@@ -0,0 +1,58 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Layout trace sink that appends entries to a file from a daemon writer thread.
+ * record() only enqueues; the writer drains the queue and flushes once it is
+ * empty. The file is truncated when the sink is created (once per run).
+ */
+public class AsyncFileTraceSink implements LayoutTraceSink {
+    private static final int MAX_PENDING = 1024; // Entries beyond this are dropped rather than blocking
+
+    private final Path file;
+    private final BlockingQueue<String> pending = new LinkedBlockingQueue<>(MAX_PENDING);
+
+    public AsyncFileTraceSink(Path file) {
+        this.file = file;
+        Thread writer = new Thread(this::writeLoop, "layout-trace-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void record(String entry) {
+        pending.offer(entry);
+    }
+
+    private void writeLoop() {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                while (true) {
+                    out.write(pending.take());
+                    String next;
+                    while ((next = pending.poll()) != null) {
+                        out.write(next);
+                    }
+                    out.flush();
+                }
+            }
+        } catch (IOException ex) {
+            System.err.println("Layout trace disabled, cannot write " + file + ": " + ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Periodic and room-transition autosaves that never block the game loop.
+ * The FX thread only captures a GameSnapshot (shared packed arrays, see its header);
+ * a background writer serializes it with fsync and an atomic rename. If saves are
+ * requested faster than the disk writes them, only the newest pending snapshot is
+ * written. Keeps capture cost (FX thread) and write latency (writer thread) metrics.
+ */
+public class AutosaveService {
+    public static final long DEFAULT_INTERVAL_NANOS = 30_000_000_000L; // 30 s
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "autosave-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path file;
+    private final long intervalNanos;
+    private final AtomicReference<GameSnapshot> latest = new AtomicReference<>();
+    private final AtomicBoolean writeQueued = new AtomicBoolean();
+    private long lastSaveNanos = -1; // Game loop clock; -1 until the first tick
+    private volatile boolean discarded; // Set once the run ended, until the next save
+
+    // Capture metrics (FX thread only)
+    private long captures;
+    private long captureNanosTotal;
+    private long captureNanosMax;
+    // Write metrics (writer thread)
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong writeNanosTotal = new AtomicLong();
+    private final AtomicLong writeNanosMax = new AtomicLong();
+
+    public AutosaveService(Path file) {
+        this(file, DEFAULT_INTERVAL_NANOS);
+    }
+
+    public AutosaveService(Path file, long intervalNanos) {
+        this.file = file;
+        this.intervalNanos = intervalNanos;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    // True if there is an autosave to continue from
+    public boolean hasSave() {
+        return !discarded && Files.isRegularFile(file);
+    }
+
+    // Called every frame with the AnimationTimer clock: true once the interval has elapsed
+    public boolean isDue(long now) {
+        if (lastSaveNanos < 0) {
+            lastSaveNanos = now;
+            return false;
+        }
+        return now - lastSaveNanos >= intervalNanos;
+    }
+
+    // Restarts the interval (new game, loaded save)
+    public void reset() {
+        lastSaveNanos = -1;
+    }
+
+    // Captures the run on the calling (FX) thread and queues it for the writer
+    public void save(int level, List<ItemDefinition> collectedItems, Player player,
+                     GameMap gameMap, ProjectileManager projectileManager) {
+        long start = System.nanoTime();
+        GameSnapshot snapshot = GameSnapshot.capture(level, collectedItems, player, gameMap, projectileManager);
+        long elapsed = System.nanoTime() - start;
+        lastSaveNanos = start;
+        discarded = false;
+        captures++;
+        captureNanosTotal += elapsed;
+        captureNanosMax = Math.max(captureNanosMax, elapsed);
+
+        // A snapshot still waiting for the writer is replaced by this newer one
+        if (latest.getAndSet(snapshot) != null) coalesced.incrementAndGet();
+        if (writeQueued.compareAndSet(false, true)) {
+            writer.execute(this::writeLatest);
+        }
+    }
+
+    // Drops the pending snapshot and deletes the autosave (the player died). The delete is
+    // queued on the writer, so a write already in progress cannot bring the file back.
+    public void discard() {
+        discarded = true;
+        latest.set(null);
+        writer.execute(() -> {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ex) {
+                System.err.println("Could not delete " + file + ": " + ex.getMessage());
+            }
+        });
+    }
+
+    // Writer thread: writes the newest queued snapshot
+    private void writeLatest() {
+        writeQueued.set(false); // Set first, so a save queued during the write schedules another run
+        GameSnapshot snapshot = latest.getAndSet(null);
+        if (snapshot == null) return;
+        long start = System.nanoTime();
+        try {
+            snapshot.write(file);
+            long elapsed = System.nanoTime() - start;
+            writes.incrementAndGet();
+            writeNanosTotal.addAndGet(elapsed);
+            writeNanosMax.accumulateAndGet(elapsed, Math::max);
+        } catch (IOException | RuntimeException ex) {
+            failures.incrementAndGet();
+            System.err.println("Autosave failed: " + ex.getMessage());
+        }
+    }
+
+    // METRICS
+
+    public long getCaptures() { return captures; }
+    public long getWrites() { return writes.get(); }
+    public long getFailures() { return failures.get(); }
+    public long getCoalesced() { return coalesced.get(); }
+
+    public double getMeanCaptureMicros() {
+        return captures == 0 ? 0 : captureNanosTotal / 1e3 / captures;
+    }
+
+    public double getMaxCaptureMicros() {
+        return captureNanosMax / 1e3;
+    }
+
+    public double getMeanWriteMillis() {
+        long count = writes.get();
+        return count == 0 ? 0 : writeNanosTotal.get() / 1e6 / count;
+    }
+
+    public double getMaxWriteMillis() {
+        return writeNanosMax.get() / 1e6;
+    }
+
+    public String describeMetrics() {
+        return String.format(Locale.ROOT,
+                "autosave: %d captures (mean %.1f us, max %.1f us), %d writes (mean %.2f ms, max %.2f ms), %d coalesced, %d failed",
+                captures, getMeanCaptureMicros(), getMaxCaptureMicros(), getWrites(), getMeanWriteMillis(),
+                getMaxWriteMillis(), getCoalesced(), getFailures());
+    }
+}
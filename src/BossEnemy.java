@@ -1,15 +1,41 @@
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 
+/**
+ * Boss driven by health-keyed phases, each one replaying a precompiled timeline
+ * of projectile patterns on simulation ticks (independent of the frame rate).
+ */
 public class BossEnemy extends Enemy {
     private static final boolean TEST_PASSIVE_BOSS = false;
-    private int attackCooldown = 0;
-    private static final int MAX_COOLDOWN = 180; // 3 secondes à 60 FPS
+    private static final int MAX_HEALTH = 50;
+    private static final long SIGHT_INTERVAL = 100_000_000; // Line-of-sight refresh period
 
+    // Phases ordered by decreasing health threshold; a phase starts once health <= its threshold
+    private static final BossPhase[] PHASES = {
+        // Une volée toutes les 3 s : deux croix puis une diagonale
+        new BossPhase(MAX_HEALTH, 540, 1.0,
+            BossPhase.at(0, BossPattern.CROSS),
+            BossPhase.at(180, BossPattern.CROSS),
+            BossPhase.at(360, BossPattern.DIAGONAL)),
+        // 60% : alternance toutes les 2 s, projectiles plus rapides
+        new BossPhase(30, 240, 1.25,
+            BossPhase.at(0, BossPattern.DIAGONAL),
+            BossPhase.at(120, BossPattern.CROSS)),
+        // 25% : étoile puis croix toutes les 1.5 s
+        new BossPhase(12, 180, 1.5,
+            BossPhase.at(0, BossPattern.STAR),
+            BossPhase.at(90, BossPattern.CROSS))
+    };
 
+    private final SimulationClock clock = new SimulationClock();
+    private int phaseIndex = 0;   // Index in PHASES
+    private int phaseTick = 0;    // Tick position inside the current phase loop
+    private int cursor = 0;       // Next emission of the current phase timeline
+    private boolean playerInSight; // Last line-of-sight result (AIScheduler job)
+    private long sightCheckedAt = Long.MIN_VALUE / 2;
 
     public BossEnemy(double x, double y) {
-        super(x, y, 50, 5, 0); // Beaucoup de vie, gros dégâts, vitesse nulle (statique)
+        super(x, y, MAX_HEALTH, 5, 0); // Beaucoup de vie, gros dégâts, vitesse nulle (statique)
     }
 
     @Override
@@ -23,33 +49,79 @@ public class BossEnemy extends Enemy {
             return;
         }
 
-        if (attackCooldown > 0) {
-            attackCooldown--;
-        } else {
-            shootPattern(projectileManager, gameMap);
-            attackCooldown = MAX_COOLDOWN;
+        updatePhase();
+        int ticks = clock.advance(System.nanoTime());
+        for (int i = 0; i < ticks; i++) {
+            if (!tick(player, gameMap)) break;
         }
     }
 
-    private void shootPattern(ProjectileManager projectileManager, GameMap gameMap) {
-    int pattern = (int) (Math.random() * 3); 
-        switch (pattern) {
-            case 0, 1:
-                // Cross attack (+)
-                projectileManager.addProjectile(new Projectile(getX(), getY(), 2, 1, 20, Direction.NORTH, ProjectileOwner.ENEMY, ProjectileTarget.PLAYER));
-                projectileManager.addProjectile(new Projectile(getX(), getY(), 2, 1, 20, Direction.SOUTH, ProjectileOwner.ENEMY, ProjectileTarget.PLAYER));
-                projectileManager.addProjectile(new Projectile(getX(), getY(), 2, 1, 20, Direction.EAST, ProjectileOwner.ENEMY, ProjectileTarget.PLAYER));
-                projectileManager.addProjectile(new Projectile(getX(), getY(), 2, 1, 20, Direction.WEST, ProjectileOwner.ENEMY, ProjectileTarget.PLAYER));
-                break;
-            case 2:
-                // Diagonal attack (x)
-                projectileManager.addProjectile(new Projectile(getX(), getY(), 2, 1, 20, Direction.NORTH_EAST, ProjectileOwner.ENEMY, ProjectileTarget.PLAYER));
-                projectileManager.addProjectile(new Projectile(getX(), getY(), 2, 1, 20, Direction.NORTH_WEST, ProjectileOwner.ENEMY, ProjectileTarget.PLAYER));
-                projectileManager.addProjectile(new Projectile(getX(), getY(), 2, 1, 20, Direction.SOUTH_EAST, ProjectileOwner.ENEMY, ProjectileTarget.PLAYER));
-                projectileManager.addProjectile(new Projectile(getX(), getY(), 2, 1, 20, Direction.SOUTH_WEST, ProjectileOwner.ENEMY, ProjectileTarget.PLAYER));
-                break;
+    // Escalates to the deepest phase whose threshold the health has reached
+    private void updatePhase() {
+        int target = phaseIndex;
+        while (target + 1 < PHASES.length && getHealth() <= PHASES[target + 1].getHealthThreshold()) {
+            target++;
         }
-}
+        if (target != phaseIndex) {
+            phaseIndex = target;
+            phaseTick = 0;
+            cursor = 0;
+        }
+    }
+
+    // Advances the timeline by one tick; returns false while holding for line of sight
+    private boolean tick(Player player, GameMap gameMap) {
+        BossPhase phase = PHASES[phaseIndex];
+        if (cursor < phase.getEmissionCount() && phase.getEmissionTick(cursor) == phaseTick) {
+            // Hold the emission until the player leaves cover
+            if (!playerInSight) return false;
+            while (cursor < phase.getEmissionCount() && phase.getEmissionTick(cursor) == phaseTick) {
+                fire(phase.getEmissionPattern(cursor), phase.getProjectileSpeed());
+                cursor++;
+            }
+        }
+
+        phaseTick++;
+        if (phaseTick >= phase.getLoopTicks()) {
+            phaseTick = 0;
+            cursor = 0;
+        }
+        return true;
+    }
+
+    // Timeline position, saved with the game (the simulation clock restarts on load)
+    int getPhaseIndex() { return phaseIndex; }
+    int getPhaseTick() { return phaseTick; }
+    int getCursor() { return cursor; }
+
+    void restoreTimeline(int phaseIndex, int phaseTick, int cursor) {
+        this.phaseIndex = Math.max(0, Math.min(PHASES.length - 1, phaseIndex));
+        this.phaseTick = phaseTick;
+        this.cursor = cursor;
+    }
+
+    // Requests a line-of-sight check every SIGHT_INTERVAL; the AIScheduler runs it within its budget
+    @Override
+    public void scheduleWork(AIScheduler scheduler, Player player, long now) {
+        if (now - sightCheckedAt >= SIGHT_INTERVAL) {
+            scheduler.submit(this, AIScheduler.JobType.LINE_OF_SIGHT);
+        }
+    }
+
+    @Override
+    public void runScheduledJob(AIScheduler.JobType type, Player player, GameMap gameMap) {
+        if (type != AIScheduler.JobType.LINE_OF_SIGHT) return;
+        Room room = gameMap.getCurrentRoom();
+        playerInSight = room == null || room.getLineOfSight().hasLineOfSight(getX(), getY(), player.getX(), player.getY());
+        sightCheckedAt = System.nanoTime();
+    }
+
+    private void fire(BossPattern pattern, double speed) {
+        for (int i = 0; i < pattern.size(); i++) {
+            spawnProjectile(new Projectile(getX(), getY(), 2, speed, 20, pattern.direction(i),
+                    ProjectileOwner.ENEMY, ProjectileTarget.PLAYER));
+        }
+    }
 
     @Override
     protected double getRenderSize(double tileSize) {
@@ -63,7 +135,7 @@ public class BossEnemy extends Enemy {
         gc.fillOval(screenX - size/2, screenY - size/2, size, size);
         // Barre de vie du boss
         gc.setFill(Color.RED);
-        double lifeRatio = Math.max(0, getHealth() / 50.0);
+        double lifeRatio = Math.max(0, getHealth() / (double) MAX_HEALTH);
         gc.fillRect(screenX - size/2, screenY - size/2 - 10, size * lifeRatio, 8);
         gc.setStroke(Color.BLACK);
         gc.strokeRect(screenX - size/2, screenY - size/2 - 10, size, 8);
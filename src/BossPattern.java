@@ -0,0 +1,23 @@
+/**
+ * Projectile patterns the boss can emit; each fires one projectile per direction.
+ */
+public enum BossPattern {
+    CROSS(Direction.NORTH, Direction.SOUTH, Direction.EAST, Direction.WEST),
+    DIAGONAL(Direction.NORTH_EAST, Direction.NORTH_WEST, Direction.SOUTH_EAST, Direction.SOUTH_WEST),
+    STAR(Direction.NORTH, Direction.SOUTH, Direction.EAST, Direction.WEST,
+         Direction.NORTH_EAST, Direction.NORTH_WEST, Direction.SOUTH_EAST, Direction.SOUTH_WEST);
+
+    private final Direction[] directions;
+
+    BossPattern(Direction... directions) {
+        this.directions = directions;
+    }
+
+    int size() {
+        return directions.length;
+    }
+
+    Direction direction(int i) {
+        return directions[i];
+    }
+}
@@ -0,0 +1,53 @@
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * One phase of the boss fight: active once the boss health drops to the threshold,
+ * it repeats a timeline of pattern emissions placed on simulation ticks.
+ * The timeline is compiled into sorted parallel arrays so that running the phase
+ * is only a cursor moving forward, one tick at a time.
+ */
+public class BossPhase {
+    // One entry of a timeline: fire a pattern at the given tick of the loop
+    public record Emission(int tick, BossPattern pattern) {}
+
+    private final int healthThreshold;
+    private final int loopTicks;
+    private final double projectileSpeed;
+    private final int[] emissionTicks;
+    private final BossPattern[] emissionPatterns;
+
+    public BossPhase(int healthThreshold, int loopTicks, double projectileSpeed, Emission... timeline) {
+        if (loopTicks <= 0) {
+            throw new IllegalArgumentException("Phase loop must last at least one tick");
+        }
+        Emission[] sorted = timeline.clone();
+        Arrays.sort(sorted, Comparator.comparingInt(Emission::tick));
+        for (Emission emission : sorted) {
+            if (emission.tick() < 0 || emission.tick() >= loopTicks) {
+                throw new IllegalArgumentException("Emission tick " + emission.tick() + " outside loop of " + loopTicks);
+            }
+        }
+
+        this.healthThreshold = healthThreshold;
+        this.loopTicks = loopTicks;
+        this.projectileSpeed = projectileSpeed;
+        this.emissionTicks = new int[sorted.length];
+        this.emissionPatterns = new BossPattern[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            emissionTicks[i] = sorted[i].tick();
+            emissionPatterns[i] = sorted[i].pattern();
+        }
+    }
+
+    public static Emission at(int tick, BossPattern pattern) {
+        return new Emission(tick, pattern);
+    }
+
+    public int getHealthThreshold() { return healthThreshold; }
+    public int getLoopTicks() { return loopTicks; }
+    public double getProjectileSpeed() { return projectileSpeed; }
+    public int getEmissionCount() { return emissionTicks.length; }
+    public int getEmissionTick(int index) { return emissionTicks[index]; }
+    public BossPattern getEmissionPattern(int index) { return emissionPatterns[index]; }
+}
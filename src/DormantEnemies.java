@@ -0,0 +1,95 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Compact snapshot of the living enemies of a room the player is not in.
+ * Only kind, position and health are kept, in parallel primitive arrays; the
+ * enemy objects (AI state, paths, timers) are rebuilt when the room is entered.
+ */
+public class DormantEnemies {
+    private static final DormantEnemies EMPTY = new DormantEnemies(0);
+
+    private final byte[] kinds;
+    private final float[] posX;
+    private final float[] posY;
+    private final short[] health;
+
+    private DormantEnemies(int count) {
+        kinds = new byte[count];
+        posX = new float[count];
+        posY = new float[count];
+        health = new short[count];
+    }
+
+    // Packs the living enemies of a room (dead ones are dropped)
+    public static DormantEnemies pack(Collection<Enemy> enemies) {
+        int count = 0;
+        for (Enemy enemy : enemies) {
+            if (enemy.isAlive()) count++;
+        }
+        if (count == 0) return EMPTY;
+
+        DormantEnemies packed = new DormantEnemies(count);
+        int i = 0;
+        for (Enemy enemy : enemies) {
+            if (!enemy.isAlive()) continue;
+            packed.kinds[i] = (byte) EnemyKind.of(enemy).ordinal();
+            packed.posX[i] = (float) enemy.getX();
+            packed.posY[i] = (float) enemy.getY();
+            packed.health[i] = (short) Math.min(Short.MAX_VALUE, enemy.getHealth());
+            i++;
+        }
+        return packed;
+    }
+
+    // Rebuilds live enemy objects with their saved position and health; their AI generators
+    // are seeded from seed (the room's content seed) in enemy order
+    public Set<Enemy> unpack(GameMap gameMap, long seed) {
+        Set<Enemy> enemies = new HashSet<>();
+        Random seeds = new Random(seed);
+        for (int i = 0; i < kinds.length; i++) {
+            Enemy enemy = EnemyKind.fromOrdinal(kinds[i]).create(posX[i], posY[i], gameMap, seeds.nextLong());
+            enemy.restoreHealth(health[i]);
+            enemies.add(enemy);
+        }
+        return enemies;
+    }
+
+    // Binary form used by GameSnapshot: count, then kind, x, y and health per enemy
+    public void write(DataOutput out) throws IOException {
+        out.writeShort(kinds.length);
+        for (int i = 0; i < kinds.length; i++) {
+            out.writeByte(kinds[i]);
+            out.writeFloat(posX[i]);
+            out.writeFloat(posY[i]);
+            out.writeShort(health[i]);
+        }
+    }
+
+    public static DormantEnemies read(DataInput in) throws IOException {
+        int count = in.readUnsignedShort();
+        if (count == 0) return EMPTY;
+        DormantEnemies packed = new DormantEnemies(count);
+        int kindCount = EnemyKind.values().length;
+        for (int i = 0; i < count; i++) {
+            byte kind = in.readByte();
+            if (kind < 0 || kind >= kindCount) {
+                throw new IOException("bad enemy kind " + kind);
+            }
+            packed.kinds[i] = kind;
+            packed.posX[i] = in.readFloat();
+            packed.posY[i] = in.readFloat();
+            packed.health[i] = in.readShort();
+        }
+        return packed;
+    }
+
+    public int size() {
+        return kinds.length;
+    }
+}
@@ -0,0 +1,189 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+/**
+ * Headless dungeon generation benchmark and layout-distribution report.
+ * Generates DungeonLayouts for a range of seeds in parallel and reports the
+ * throughput plus the distributions of room count, boss distance, dead ends,
+ * item-room placement and MIN_ROOMS fallback frequency, so generation settings
+ * can be tuned from data.
+ *
+ * A second pass builds full GameMaps (prefabs, doors, LevelValidator) and reports
+ * the validator's rejection and retry counters.
+ *
+ * Usage: java -cp out DungeonBenchmark [--seeds=N] [--maps=N] [--seed=N] [--level=N] [--grid=N]
+ *        [--base-rooms=N] [--spread=N] [--skip=P] [--min-rooms=N] [--serial] [--report=file]
+ * Seed i of a run is baseSeed + i, so any layout of the report can be replayed.
+ */
+public class DungeonBenchmark {
+    public static void main(String[] args) throws IOException {
+        long seeds = 1_000_000;
+        long maps = 10_000;
+        long baseSeed = 0;
+        int level = 0;
+        boolean parallel = true;
+        Path reportPath = null;
+        DungeonLayout.Settings defaults = DungeonLayout.Settings.DEFAULT;
+        int gridSize = defaults.gridSize();
+        int baseRooms = defaults.baseRooms();
+        int spread = defaults.roomSpread();
+        double skip = defaults.skipChance();
+        int minRooms = defaults.minRooms();
+
+        for (String arg : args) {
+            if (arg.startsWith("--seeds=")) seeds = Long.parseLong(arg.substring(8));
+            else if (arg.startsWith("--maps=")) maps = Long.parseLong(arg.substring(7));
+            else if (arg.startsWith("--seed=")) baseSeed = Long.parseLong(arg.substring(7));
+            else if (arg.startsWith("--level=")) level = Integer.parseInt(arg.substring(8));
+            else if (arg.startsWith("--grid=")) gridSize = Integer.parseInt(arg.substring(7));
+            else if (arg.startsWith("--base-rooms=")) baseRooms = Integer.parseInt(arg.substring(13));
+            else if (arg.startsWith("--spread=")) spread = Integer.parseInt(arg.substring(9));
+            else if (arg.startsWith("--skip=")) skip = Double.parseDouble(arg.substring(7));
+            else if (arg.startsWith("--min-rooms=")) minRooms = Integer.parseInt(arg.substring(12));
+            else if (arg.startsWith("--report=")) reportPath = Paths.get(arg.substring(9));
+            else if (arg.equals("--serial")) parallel = false;
+            else throw new IllegalArgumentException("Unknown argument: " + arg);
+        }
+
+        DungeonLayout.Settings settings = new DungeonLayout.Settings(gridSize, baseRooms, spread, skip, minRooms);
+        String report = run(seeds, baseSeed, level, settings, parallel) + runMaps(maps, baseSeed, level, settings, parallel);
+        System.out.print(report);
+        if (reportPath != null) {
+            Files.writeString(reportPath, report);
+            System.out.println("Report written to " + reportPath.toAbsolutePath());
+        }
+    }
+
+    // Generates every seed once and returns the formatted report
+    public static String run(long seeds, long baseSeed, int level, DungeonLayout.Settings settings, boolean parallel) {
+        // Warm-up so the throughput figure measures compiled code
+        LongStream.range(0, Math.min(seeds, 50_000)).forEach(i -> DungeonLayout.generate(new Random(baseSeed + i), level, settings));
+
+        long start = System.nanoTime();
+        LongStream range = LongStream.range(0, seeds);
+        if (parallel) range = range.parallel();
+        // Room counts, distances and dead ends are all bounded by the largest possible room count
+        int maxRooms = Math.max(settings.baseRooms() + settings.roomSpread() + level, settings.minRooms());
+        Stats stats = range.collect(() -> new Stats(maxRooms),
+                (acc, i) -> acc.add(DungeonLayout.generate(new Random(baseSeed + i), level, settings)),
+                Stats::merge);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "Dungeon generation report (%s, level %d, %s)%n",
+                parallel ? "parallel" : "serial", level, settings));
+        sb.append(String.format(Locale.ROOT, "%d layouts in %.3f s: %.0f generations/s%n",
+                seeds, seconds, seeds / seconds));
+        sb.append(String.format(Locale.ROOT, "MIN_ROOMS fallback: %.4f%% (%d)%n",
+                percent(stats.minRoomsFallbacks, stats.total), stats.minRoomsFallbacks));
+        sb.append(String.format(Locale.ROOT, "Rooms short of target: %.4f%% (%d)%n",
+                percent(stats.shortOfTarget, stats.total), stats.shortOfTarget));
+        sb.append(String.format(Locale.ROOT, "No boss room: %d, no item room: %d%n", stats.noBoss, stats.noItem));
+        sb.append(String.format(Locale.ROOT, "Item room in a dead end: %.2f%%, in a random room: %.2f%%%n",
+                percent(stats.itemInDeadEnd, stats.total), percent(stats.total - stats.itemInDeadEnd - stats.noItem, stats.total)));
+        appendHistogram(sb, "Room count", stats.roomCount, stats.total);
+        appendHistogram(sb, "Boss distance from start", stats.bossDistance, stats.total);
+        appendHistogram(sb, "Dead ends", stats.deadEnds, stats.total);
+        appendHistogram(sb, "Item distance from start", stats.itemDistance, stats.total);
+        return sb.toString();
+    }
+
+    // Builds full levels (validated and regenerated as in the game) and reports LevelValidator's counters
+    public static String runMaps(long maps, long baseSeed, int level, DungeonLayout.Settings settings, boolean parallel) {
+        if (maps <= 0) return "";
+        PrefabLibrary.getDefault(); // Parsed before timing
+        long start = System.nanoTime();
+        LongStream range = LongStream.range(0, maps);
+        if (parallel) range = range.parallel();
+        // No ProjectileManager: only the start room is materialized and it spawns nothing
+        range.forEach(i -> new GameMap(null, level, settings, baseSeed + i));
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long generated = LevelValidator.getLevelsGenerated();
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%nFull levels: %d in %.3f s (%.3f ms of wall time each)%n",
+                generated, seconds, seconds * 1e3 / Math.max(1, maps)));
+        sb.append(String.format(Locale.ROOT, "Validations: %d (mean %.2f us), rejected %d disconnected, %d blocked room%n",
+                LevelValidator.getLevelsValidated(), LevelValidator.getMeanValidationMicros(),
+                LevelValidator.getRejectedDisconnected(), LevelValidator.getRejectedBlockedRoom()));
+        sb.append(String.format(Locale.ROOT, "Regenerations: %d (%.4f%% of levels), retries exhausted: %d%n",
+                LevelValidator.getRegenerations(), percent(LevelValidator.getRegenerations(), generated),
+                LevelValidator.getRetriesExhausted()));
+        return sb.toString();
+    }
+
+    private static void appendHistogram(StringBuilder sb, String title, long[] counts, long total) {
+        long sum = 0;
+        long weighted = 0;
+        for (int v = 0; v < counts.length; v++) {
+            sum += counts[v];
+            weighted += v * counts[v];
+        }
+        sb.append(String.format(Locale.ROOT, "%n%s (mean %.2f)%n", title, sum == 0 ? 0.0 : weighted / (double) sum));
+        for (int v = 0; v < counts.length; v++) {
+            if (counts[v] == 0) continue;
+            double pct = percent(counts[v], total);
+            sb.append(String.format(Locale.ROOT, "%4d | %8.4f%% %s%n", v, pct, "#".repeat((int) Math.round(pct / 2))));
+        }
+    }
+
+    private static double percent(long count, long total) {
+        return total == 0 ? 0 : 100.0 * count / total;
+    }
+
+    // Per-thread accumulator, merged at the end of the stream
+    private static final class Stats {
+        long total;
+        long minRoomsFallbacks;
+        long shortOfTarget;
+        long noBoss;
+        long noItem;
+        long itemInDeadEnd;
+        final long[] roomCount;
+        final long[] bossDistance;
+        final long[] deadEnds;
+        final long[] itemDistance;
+
+        Stats(int maxRooms) {
+            roomCount = new long[maxRooms + 1];
+            bossDistance = new long[maxRooms + 1];
+            deadEnds = new long[maxRooms + 1];
+            itemDistance = new long[maxRooms + 1];
+        }
+
+        void add(DungeonLayout layout) {
+            total++;
+            roomCount[layout.getRoomCount()]++;
+            deadEnds[layout.getDeadEndCount()]++;
+            if (layout.usedMinRoomsFallback()) minRoomsFallbacks++;
+            if (layout.getRoomCount() < layout.getTargetRooms()) shortOfTarget++;
+            if (layout.getBossCell() < 0) noBoss++;
+            else bossDistance[layout.getDistance(layout.getBossCell())]++;
+            if (layout.getItemCell() < 0) noItem++;
+            else {
+                itemDistance[layout.getDistance(layout.getItemCell())]++;
+                if (layout.isItemInDeadEnd()) itemInDeadEnd++;
+            }
+        }
+
+        void merge(Stats other) {
+            total += other.total;
+            minRoomsFallbacks += other.minRoomsFallbacks;
+            shortOfTarget += other.shortOfTarget;
+            noBoss += other.noBoss;
+            noItem += other.noItem;
+            itemInDeadEnd += other.itemInDeadEnd;
+            for (int i = 0; i < roomCount.length; i++) {
+                roomCount[i] += other.roomCount[i];
+                bossDistance[i] += other.bossDistance[i];
+                deadEnds[i] += other.deadEnds[i];
+                itemDistance[i] += other.itemDistance[i];
+            }
+        }
+    }
+}
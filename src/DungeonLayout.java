@@ -0,0 +1,304 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Room placement of one level, computed on occupancy bitboards.
+ * Bit index = y * gridSize + x; the grid size comes from the settings (8 by
+ * default, up to MAX_GRID_SIZE). Neighbour counts, dead ends and boss candidates
+ * are derived with shifts and popcounts; no Room object is created here, the
+ * caller materializes rooms from the finished layout.
+ */
+public final class DungeonLayout {
+    // Largest validated grid: distances and bitboards are dense (size² entries), so a bigger
+    // grid costs memory for every cell although a level only holds a few dozen rooms
+    public static final int MAX_GRID_SIZE = 256;
+
+    /**
+     * Tunable generation parameters.
+     * targetRooms = baseRooms + rng(roomSpread) + level; each expansion is skipped
+     * with skipChance; below minRooms the fallback growth kicks in.
+     */
+    public record Settings(int gridSize, int baseRooms, int roomSpread, double skipChance, int minRooms) {
+        public static final Settings DEFAULT = new Settings(MapDimensions.GRID_SIZE, 10, 5, 0.5, 5);
+
+        public Settings {
+            if (gridSize < 2 || gridSize > MAX_GRID_SIZE) {
+                throw new IllegalArgumentException("gridSize must be in [2, " + MAX_GRID_SIZE + "]: " + gridSize);
+            }
+            if (baseRooms < 0) {
+                throw new IllegalArgumentException("baseRooms must not be negative: " + baseRooms);
+            }
+            if (roomSpread < 1) {
+                throw new IllegalArgumentException("roomSpread must be at least 1: " + roomSpread);
+            }
+            if (!(skipChance >= 0 && skipChance <= 1)) { // Also rejects NaN
+                throw new IllegalArgumentException("skipChance must be in [0, 1]: " + skipChance);
+            }
+            if (minRooms < 0 || (long) minRooms > (long) gridSize * gridSize) {
+                throw new IllegalArgumentException("minRooms must be in [0, gridSize^2]: " + minRooms);
+            }
+        }
+
+        public Settings withGridSize(int size) {
+            return new Settings(size, baseRooms, roomSpread, skipChance, minRooms);
+        }
+    }
+
+    // Direction offsets, in the same N/S/E/W order as the original generator
+    private static final int[] DX = {0, 0, 1, -1};
+    private static final int[] DY = {-1, 1, 0, 0};
+
+    private final int gridSize;
+    private final GridBitboard occupied;
+    private final GridBitboard endRooms; // Rooms that expanded nothing during the walk (dead ends)
+    private final int start;
+    private final int boss;         // -1 if no boss cell could be chosen
+    private final int item;         // -1 if no item cell could be chosen
+    private final short[] distance; // Walk distance from the start room, -1 for empty cells
+    private final int targetRooms;
+    private final boolean minRoomsFallback;
+
+    private DungeonLayout(int gridSize, GridBitboard occupied, GridBitboard endRooms, int start, int boss, int item,
+                          short[] distance, int targetRooms, boolean minRoomsFallback) {
+        this.gridSize = gridSize;
+        this.occupied = occupied;
+        this.endRooms = endRooms;
+        this.start = start;
+        this.boss = boss;
+        this.item = item;
+        this.distance = distance;
+        this.targetRooms = targetRooms;
+        this.minRoomsFallback = minRoomsFallback;
+    }
+
+    public static DungeonLayout generate(long seed, int level) {
+        return generate(new Random(seed), level, Settings.DEFAULT);
+    }
+
+    public static DungeonLayout generate(Random rng, int level) {
+        return generate(rng, level, Settings.DEFAULT);
+    }
+
+    // Random walk from one of the 4 central cells, then boss and item placement
+    public static DungeonLayout generate(Random rng, int level, Settings settings) {
+        int size = settings.gridSize();
+        int targetRooms = settings.baseRooms() + rng.nextInt(settings.roomSpread()) + level; // 10..14 by default
+
+        int randomStart = rng.nextInt(4);
+        int startX = size / 2 - 1 + ((randomStart == 1 || randomStart == 3) ? 1 : 0);
+        int startY = size / 2 - 1 + ((randomStart >= 2) ? 1 : 0);
+        int start = startY * size + startX;
+
+        short[] distance = new short[size * size];
+        Arrays.fill(distance, (short) -1);
+        distance[start] = 0;
+
+        GridBitboard occupied = new GridBitboard(size);
+        GridBitboard endRooms = new GridBitboard(size);
+        occupied.set(start);
+        int roomsCount = 1;
+
+        // Only created rooms are enqueued, so the queue never exceeds the target
+        int[] queue = new int[Math.max(targetRooms, 1) + 1];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        int[] order = {0, 1, 2, 3};
+
+        while (head < tail && roomsCount < targetRooms) {
+            int current = queue[head++];
+            int cx = current % size;
+            int cy = current / size;
+            boolean isStartRoom = current == start;
+            shuffle(order, order.length, rng);
+
+            int createdFromCurrent = 0;
+            for (int d : order) {
+                if (roomsCount >= targetRooms) break;
+
+                boolean forceFirstExpansion = isStartRoom && roomsCount == 1 && createdFromCurrent == 0;
+                if (!forceFirstExpansion && rng.nextDouble() < settings.skipChance()) continue;
+                int n = neighbourCell(size, cx, cy, d);
+                if (n < 0) continue;
+                if (occupied.get(n)) continue;
+                if (occupiedNeighbours(occupied, n) >= 2) continue;
+
+                occupied.set(n);
+                distance[n] = (short) (distance[current] + 1);
+                queue[tail++] = n;
+                roomsCount++;
+                createdFromCurrent++;
+            }
+
+            if (createdFromCurrent == 0 && !isStartRoom) {
+                endRooms.set(current);
+            }
+        }
+
+        // Fallback: grow from random existing rooms until minRooms is reached
+        int minRooms = settings.minRooms();
+        boolean minRoomsFallback = false;
+        if (roomsCount < minRooms) {
+            minRoomsFallback = true;
+            boolean createdRoom = true;
+            while (roomsCount < minRooms && createdRoom) {
+                createdRoom = false;
+                int[] cells = toCells(occupied);
+                shuffle(cells, cells.length, rng);
+
+                for (int i = 0; i < cells.length && roomsCount < minRooms; i++) {
+                    int current = cells[i];
+                    shuffle(order, order.length, rng);
+                    for (int d : order) {
+                        int n = neighbourCell(size, current % size, current / size, d);
+                        if (n < 0) continue;
+                        if (occupied.get(n)) continue;
+                        if (occupiedNeighbours(occupied, n) >= 3) continue;
+
+                        occupied.set(n);
+                        distance[n] = (short) (Math.max(0, distance[current]) + 1);
+                        roomsCount++;
+                        createdRoom = true;
+                        break;
+                    }
+                }
+            }
+        }
+
+        // Boss: farthest dead end (exactly one neighbour), at least minBossDistance away if possible
+        GridBitboard candidates = occupied.exactlyOneNeighbour().and(occupied);
+        candidates.clear(start);
+        if (candidates.isEmpty()) candidates = endRooms.copy();
+        if (candidates.isEmpty()) {
+            candidates = occupied.copy();
+            candidates.clear(start);
+        }
+
+        int minBossDistance = Math.max(4, targetRooms / 3);
+        int boss = farthest(candidates, distance, minBossDistance);
+        if (boss < 0) boss = farthest(candidates, distance, 0);
+        if (boss >= 0) endRooms.clear(boss);
+
+        // Item: a random dead end, else a random NORMAL room
+        GridBitboard itemPool = endRooms;
+        if (itemPool.isEmpty()) {
+            itemPool = occupied.copy();
+            itemPool.clear(start);
+            if (boss >= 0) itemPool.clear(boss);
+        }
+        int poolSize = itemPool.bitCount();
+        int item = poolSize > 0 ? itemPool.nthSetBit(rng.nextInt(poolSize)) : -1;
+
+        return new DungeonLayout(size, occupied, endRooms, start, boss, item, distance, targetRooms, minRoomsFallback);
+    }
+
+    // QUERIES
+
+    public int getGridSize() { return gridSize; }
+    public int getStartCell() { return start; }
+    public int getBossCell() { return boss; }
+    public int getItemCell() { return item; }
+    public int getTargetRooms() { return targetRooms; }
+    public boolean usedMinRoomsFallback() { return minRoomsFallback; }
+
+    public int getRoomCount() {
+        return occupied.bitCount();
+    }
+
+    // Cells holding a room, in ascending cell order
+    public int[] getRoomCells() {
+        return toCells(occupied);
+    }
+
+    public boolean isOccupied(int x, int y) {
+        return x >= 0 && x < gridSize && y >= 0 && y < gridSize && occupied.get(cell(x, y));
+    }
+
+    // Walk distance of a cell from the start room, or -1 if the cell is empty
+    public int getDistance(int cell) {
+        return distance[cell];
+    }
+
+    // Rooms with exactly one neighbouring room
+    public int getDeadEndCount() {
+        return occupied.exactlyOneNeighbour().and(occupied).bitCount();
+    }
+
+    // True if the item room sits in a dead end (false when it fell back to a random room)
+    public boolean isItemInDeadEnd() {
+        return item >= 0 && endRooms.get(item);
+    }
+
+    // Type of the room at a cell, or null for an empty cell
+    public RoomType getRoomType(int cell) {
+        if (!occupied.get(cell)) return null;
+        if (cell == start) return RoomType.START;
+        if (cell == boss) return RoomType.BOSS;
+        if (cell == item) return RoomType.ITEM;
+        return RoomType.NORMAL;
+    }
+
+    public int cell(int x, int y) {
+        return y * gridSize + x;
+    }
+
+    public int cellX(int cell) {
+        return cell % gridSize;
+    }
+
+    public int cellY(int cell) {
+        return cell / gridSize;
+    }
+
+    // HELPERS
+
+    private static int occupiedNeighbours(GridBitboard occupied, int cell) {
+        int size = occupied.size();
+        int x = cell % size;
+        int y = cell / size;
+        int count = 0;
+        if (y > 0 && occupied.get(cell - size)) count++;
+        if (y < size - 1 && occupied.get(cell + size)) count++;
+        if (x < size - 1 && occupied.get(cell + 1)) count++;
+        if (x > 0 && occupied.get(cell - 1)) count++;
+        return count;
+    }
+
+    private static int neighbourCell(int size, int x, int y, int direction) {
+        int nx = x + DX[direction];
+        int ny = y + DY[direction];
+        if (nx < 0 || nx >= size || ny < 0 || ny >= size) return -1;
+        return ny * size + nx;
+    }
+
+    private static int farthest(GridBitboard candidates, short[] distance, int minDistance) {
+        int best = -1;
+        int bestDistance = -1;
+        for (int cell = candidates.nextSetBit(0); cell >= 0; cell = candidates.nextSetBit(cell + 1)) {
+            int dist = distance[cell];
+            if (dist >= minDistance && dist > bestDistance) {
+                bestDistance = dist;
+                best = cell;
+            }
+        }
+        return best;
+    }
+
+    private static int[] toCells(GridBitboard board) {
+        int[] cells = new int[board.bitCount()];
+        int count = 0;
+        for (int cell = board.nextSetBit(0); cell >= 0; cell = board.nextSetBit(cell + 1)) {
+            cells[count++] = cell;
+        }
+        return cells;
+    }
+
+    private static void shuffle(int[] values, int count, Random rng) {
+        for (int i = count - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+}
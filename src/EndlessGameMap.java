@@ -0,0 +1,262 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Endless dungeon mode: there is no bounded grid generated up front.
+ * Every room (type, doors, prefab, content seed) is a pure function of the world
+ * seed and its coordinates, so it can be built at any time and rebuilt identically.
+ * When the player enters a room, the rooms behind its doors are generated on a
+ * background thread; rooms farther than KEEP_RADIUS are evicted, and visited ones
+ * leave a compact VisitedRoom record in a bounded LRU map. Memory therefore stays
+ * bounded however far the player travels.
+ * Endless rooms are START, NORMAL or ITEM rooms: no boss room and no locked doors.
+ */
+public class EndlessGameMap extends GameMap {
+    private static final int KEEP_RADIUS = 2;        // Live rooms around the player (Chebyshev distance)
+    private static final int MAX_VISITED = 4096;     // Evicted visited rooms remembered, oldest forgotten first
+    private static final int SPINE_SPACING = 4;      // Every 4th row and column is an open corridor
+    private static final double DOOR_CHANCE = 0.45;  // Chance of any other door
+    private static final int ITEM_ROOM_ONE_IN = 12;
+    private static final Direction[] CARDINALS = {Direction.NORTH, Direction.SOUTH, Direction.EAST, Direction.WEST};
+
+    // Salts so that type, layout and door hashes of a cell are independent
+    private static final long TYPE_SALT = 0x5DEECE66DL;
+    private static final long LAYOUT_SALT = 0x2545F4914F6CDD1DL;
+    private static final long EAST_DOOR_SALT = 0x632BE59BD9B4E019L;
+    private static final long SOUTH_DOOR_SALT = 0x85EBCA77C2B2AE63L;
+
+    private static final ExecutorService STREAMER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "endless-streamer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // State kept for a visited room once it is evicted (uncollected rewards are not kept)
+    private record VisitedRoom(DormantEnemies enemies, boolean completed, boolean itemCollected) {
+    }
+
+    private final ProjectileManager projectileManager;
+    private final long worldSeed;
+    private final PrefabLibrary prefabs = PrefabLibrary.getDefault();
+    // Both maps are only touched on the FX thread; the futures complete on the streamer
+    private final Map<Long, CompletableFuture<Room>> pending = new HashMap<>();
+    private final Map<Long, VisitedRoom> visited = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, VisitedRoom> eldest) {
+            return size() > MAX_VISITED;
+        }
+    };
+    private int roomsStreamed;   // Rooms built ahead of the player
+    private int blockingBuilds;  // Rooms the FX thread had to wait for or build itself
+
+    public EndlessGameMap(ProjectileManager projectileManager) {
+        this(projectileManager, new Random().nextLong());
+    }
+
+    public EndlessGameMap(ProjectileManager projectileManager, long worldSeed) {
+        super(projectileManager, 0, RoomStore.unbounded(), worldSeed);
+        this.projectileManager = projectileManager;
+        this.worldSeed = worldSeed;
+        placeStartRoom(buildRoom(0, 0));
+        prefetchAround(getCurrentRoom());
+    }
+
+    // NAVIGATION
+
+    // The room behind the door must exist before the base class looks it up
+    @Override
+    public void setNextRoom(Direction direction) {
+        Room current = getCurrentRoom();
+        int[] offset = offset(direction);
+        if (offset != null) {
+            ensureRoom(current.getX() + offset[0], current.getY() + offset[1]);
+        }
+        super.setNextRoom(direction);
+    }
+
+    @Override
+    public void switchToNextRoom() {
+        super.switchToNextRoom();
+        Room current = getCurrentRoom();
+        adoptFinished();
+        evictFarRooms(current.getX(), current.getY());
+        prefetchAround(current);
+    }
+
+    // STREAMING (FX thread)
+
+    // Queues generation of the rooms behind the doors of a room
+    private void prefetchAround(Room room) {
+        for (Direction dir : room.getDirections()) {
+            int[] offset = offset(dir);
+            if (offset == null) continue;
+            int nx = room.getX() + offset[0];
+            int ny = room.getY() + offset[1];
+            long key = RoomStore.key(nx, ny);
+            if (getRooms().get(nx, ny) != null || pending.containsKey(key)) continue;
+            pending.put(key, CompletableFuture.supplyAsync(() -> buildRoom(nx, ny), STREAMER));
+        }
+    }
+
+    // Returns the room at (x, y), taking the streamed one or, if none was queued, building it now
+    private Room ensureRoom(int x, int y) {
+        Room room = getRooms().get(x, y);
+        if (room != null) return room;
+
+        CompletableFuture<Room> future = pending.remove(RoomStore.key(x, y));
+        if (future == null || !future.isDone()) blockingBuilds++;
+        room = null;
+        if (future != null) {
+            try {
+                room = future.join();
+            } catch (RuntimeException ex) {
+                System.err.println("Background room generation failed: " + ex.getMessage());
+            }
+        }
+        if (room == null) room = buildRoom(x, y);
+        adopt(room);
+        return room;
+    }
+
+    // Moves every finished background room into the store
+    private void adoptFinished() {
+        Iterator<CompletableFuture<Room>> it = pending.values().iterator();
+        while (it.hasNext()) {
+            CompletableFuture<Room> future = it.next();
+            if (!future.isDone()) continue;
+            it.remove();
+            if (!future.isCompletedExceptionally() && !future.isCancelled()) {
+                adopt(future.join());
+            }
+        }
+    }
+
+    // Adds a built room to the store, restoring its state if the player had visited it
+    private void adopt(Room room) {
+        if (getRooms().get(room.getX(), room.getY()) != null) return;
+        VisitedRoom saved = visited.remove(RoomStore.key(room.getX(), room.getY()));
+        if (saved != null) {
+            room.restoreVisited(saved.enemies(), saved.completed(), saved.itemCollected());
+            room.makeDormant();
+        }
+        getRooms().put(room);
+        roomsStreamed++;
+    }
+
+    // Drops rooms (and queued generations) outside KEEP_RADIUS of the player
+    private void evictFarRooms(int px, int py) {
+        for (Room room : new ArrayList<>(getRooms().rooms())) {
+            if (!isFar(room.getX(), room.getY(), px, py)) continue;
+            getRooms().remove(room.getX(), room.getY());
+            if (room.isMaterialized()) {
+                ItemInstance item = room.getItemInstance();
+                visited.put(RoomStore.key(room.getX(), room.getY()), new VisitedRoom(
+                        room.snapshotEnemies(), room.isCompleted(), item != null && item.isCollected()));
+            }
+        }
+        Iterator<Map.Entry<Long, CompletableFuture<Room>>> it = pending.entrySet().iterator();
+        while (it.hasNext()) {
+            long key = it.next().getKey();
+            if (isFar((int) (key >> 32), (int) key, px, py)) {
+                pending.get(key).cancel(false);
+                it.remove();
+            }
+        }
+    }
+
+    private static boolean isFar(int x, int y, int px, int py) {
+        return Math.max(Math.abs(x - px), Math.abs(y - py)) > KEEP_RADIUS;
+    }
+
+    // ROOM GENERATION (any thread: only reads the seed and the prefab library)
+
+    private Room buildRoom(int x, int y) {
+        RoomType type = roomType(x, y);
+        Room room = new Room(type, x, y);
+        int requiredDoors = 0;
+        for (Direction dir : CARDINALS) {
+            if (isDoorOpen(x, y, dir)) {
+                room.addDoor(dir);
+                requiredDoors |= RoomPrefab.doorBit(dir);
+            }
+        }
+
+        // Only prefabs with every needed door tile open are candidates
+        Random layoutRng = new Random(roomSeed(worldSeed ^ LAYOUT_SALT, x, y));
+        RoomPrefab prefab = switch (type) {
+            case NORMAL -> prefabs.pickRandom(layoutRng, requiredDoors);
+            case ITEM -> {
+                RoomPrefab itemPrefab = prefabs.get(PrefabLibrary.ITEM_ROOM_ID);
+                boolean fits = itemPrefab != null && (itemPrefab.getOpenDoorMask() & requiredDoors) == requiredDoors;
+                yield fits ? itemPrefab : prefabs.pickRandom(layoutRng, requiredDoors);
+            }
+            default -> null;
+        };
+        if (prefab != null) {
+            room.applyPrefab(prefab);
+        }
+        // No compatible prefab, or one that cuts off a door: a plain border open at every door
+        if ((type == RoomType.NORMAL || type == RoomType.ITEM)
+                && (prefab == null || !LevelValidator.isRoomTraversable(room))) {
+            room.restoreLayout(null, RoomLayouts.borderWithDoors(requiredDoors));
+        }
+
+        room.setReferences(this, projectileManager, roomSeed(worldSeed, x, y));
+        room.makeDormant();
+        return room;
+    }
+
+    private RoomType roomType(int x, int y) {
+        if (x == 0 && y == 0) return RoomType.START;
+        return unit(roomSeed(worldSeed ^ TYPE_SALT, x, y)) * ITEM_ROOM_ONE_IN < 1 ? RoomType.ITEM : RoomType.NORMAL;
+    }
+
+    // Each door is decided once per edge (keyed by its west or north room), so both sides agree
+    private boolean isDoorOpen(int x, int y, Direction dir) {
+        return switch (dir) {
+            case NORTH -> isSouthEdgeOpen(x, y - 1);
+            case SOUTH -> isSouthEdgeOpen(x, y);
+            case EAST -> isEastEdgeOpen(x, y);
+            case WEST -> isEastEdgeOpen(x - 1, y);
+            default -> false;
+        };
+    }
+
+    // Spine rows and columns keep the whole dungeon connected
+    private boolean isEastEdgeOpen(int x, int y) {
+        return Math.floorMod(y, SPINE_SPACING) == 0 || unit(roomSeed(worldSeed ^ EAST_DOOR_SALT, x, y)) < DOOR_CHANCE;
+    }
+
+    private boolean isSouthEdgeOpen(int x, int y) {
+        return Math.floorMod(x, SPINE_SPACING) == 0 || unit(roomSeed(worldSeed ^ SOUTH_DOOR_SALT, x, y)) < DOOR_CHANCE;
+    }
+
+    // Uniform double in [0, 1) from a 64-bit hash
+    private static double unit(long hash) {
+        return (hash >>> 11) * 0x1.0p-53;
+    }
+
+    private static int[] offset(Direction dir) {
+        return switch (dir) {
+            case NORTH -> new int[]{0, -1};
+            case SOUTH -> new int[]{0, 1};
+            case EAST -> new int[]{1, 0};
+            case WEST -> new int[]{-1, 0};
+            default -> null;
+        };
+    }
+
+    // STATS
+
+    public int getLiveRoomCount() { return getRooms().size(); }
+    public int getVisitedRecordCount() { return visited.size(); }
+    public int getRoomsStreamed() { return roomsStreamed; }
+    public int getBlockingBuilds() { return blockingBuilds; }
+}
@@ -1,16 +1,31 @@
+import java.util.ArrayList;
+import java.util.List;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 
 /**
  * Abstract base class for all enemies.
  * Handles position, health, damage, speed, and alive state.
+ * While the enemy is in the active room its state lives in a slot of the
+ * EnemyManager's EnemyStore, where the manager's systems update it; the fields
+ * below only hold that state while the enemy is detached (other rooms).
+ * Accessors always go to wherever the state currently is.
  */
 public abstract class Enemy {
-    protected double x, y;         // Enemy position
-    protected int health;          // Enemy health points
+    private double x, y;           // Enemy position (detached)
+    private int health;            // Enemy health points (detached)
     protected int damage;          // Damage dealt to the player
-    protected double speed;        // Movement speed
-    protected boolean isAlive;     // True if enemy is alive
+    private double speed;          // Movement speed (detached)
+    private boolean isAlive;       // True if enemy is alive (detached)
+    private long lastContactTime;  // Last time contact damage was dealt (nanoseconds, detached)
+    private long aiTimer;          // Per-kind AI timer, see EnemyStore.timer (detached)
+    private int heading;           // Direction ordinal, see EnemyStore.heading (detached)
+    private EnemyStore store;      // Store holding the live state, or null
+    private int slot = -1;
+    private List<Projectile> spawnIntents; // Projectiles requested during update(), merged afterwards
+
+    // Minimum delay between two contact hits on the player (1 second in nanoseconds)
+    public static final long CONTACT_COOLDOWN = 1_000_000_000;
 
     public Enemy(double x, double y, int health, int damage, double speed) {
         this.x = x;
@@ -21,13 +36,85 @@ public abstract class Enemy {
         this.isAlive = true;
     }
 
-    // Abstract method to update enemy state - signature corrigée pour correspondre aux classes filles
-    public abstract void update(Player player, ProjectileManager projectileManager, GameMap gameMap);
+    /**
+     * Per-object behaviour not covered by EnemyManager's systems (the boss timeline).
+     * Implementations only mutate their own state, treat the player and map as
+     * read-only, and request projectiles through spawnProjectile().
+     */
+    public void update(Player player, ProjectileManager projectileManager, GameMap gameMap) {
+    }
+
+    // Moves the state into a store slot (EnemyStore.add); a previous store gets it back first
+    void attach(EnemyStore target, int targetSlot) {
+        if (store != null) detach(store);
+        target.setPosition(targetSlot, x, y);
+        target.setHealth(targetSlot, health);
+        target.setSpeed(targetSlot, speed);
+        target.setLastContact(targetSlot, lastContactTime);
+        target.setTimer(targetSlot, aiTimer);
+        target.setHeading(targetSlot, heading);
+        store = target;
+        slot = targetSlot;
+        onAttached(target, targetSlot);
+    }
+
+    // Hands the state back to the fields (EnemyStore.clear); ignored if another store took the enemy since
+    void detach(EnemyStore from) {
+        if (store == null || store != from) return;
+        x = store.x(slot);
+        y = store.y(slot);
+        health = store.health(slot);
+        isAlive = store.isAlive(slot);
+        speed = store.speed(slot);
+        lastContactTime = store.lastContact(slot);
+        aiTimer = store.timer(slot);
+        heading = store.heading(slot);
+        store = null;
+        slot = -1;
+    }
+
+    // Lets a kind publish extra state to its fresh slot (a follower's current waypoint)
+    protected void onAttached(EnemyStore target, int targetSlot) {
+    }
+
+    // Store holding the live state and its slot (null / -1 while detached)
+    protected EnemyStore getStore() { return store; }
+    protected int getSlot() { return slot; }
+
+    // Records a projectile to spawn; EnemyManager merges every intent after the update phase
+    protected void spawnProjectile(Projectile projectile) {
+        if (spawnIntents == null) {
+            spawnIntents = new ArrayList<>(4);
+        }
+        spawnIntents.add(projectile);
+    }
+
+    // Hands the pending spawn intents to the projectile manager, in emission order
+    void flushSpawnIntents(ProjectileManager projectileManager) {
+        if (spawnIntents == null || spawnIntents.isEmpty()) return;
+        for (Projectile projectile : spawnIntents) {
+            projectileManager.addProjectile(projectile);
+        }
+        spawnIntents.clear();
+    }
+
+    // Queues expensive AI work with the scheduler; called every frame before EnemyManager's systems run
+    public void scheduleWork(AIScheduler scheduler, Player player, long now) {
+    }
+
+    // Runs a job this enemy previously submitted to the scheduler
+    public void runScheduledJob(AIScheduler.JobType type, Player player, GameMap gameMap) {
+    }
 
     public int getCollisionSize() {
         return MapDimensions.ENEMY_SIZE;
     }
 
+    // Distance at which the enemy deals contact damage; 0 disables contact damage
+    public double getContactRange() {
+        return 0;
+    }
+
     protected double getRenderSize(double tileSize) {
         return tileSize * MapDimensions.ENEMY_RENDER_SCALE;
     }
@@ -41,16 +128,58 @@ public abstract class Enemy {
 
     // Apply damage to the enemy and update alive state
     public void takeDamage(int damage) {
+        if (store != null) {
+            store.damage(slot, damage);
+            return;
+        }
         this.health -= damage;
         if (this.health <= 0) {
             this.isAlive = false;
         }
     }
 
+    // Restores the health of a rebuilt enemy (dormant room wake-up)
+    void restoreHealth(int health) {
+        if (store != null) {
+            store.setHealth(slot, health);
+            return;
+        }
+        this.health = health;
+        this.isAlive = health > 0;
+    }
+
+    // Moves the enemy (layout re-applied under it)
+    void setPosition(double x, double y) {
+        if (store != null) {
+            store.setPosition(slot, x, y);
+            return;
+        }
+        this.x = x;
+        this.y = y;
+    }
+
+    // AI timer and heading, meaning per kind (see EnemyStore)
+    protected long getAiTimer() { return store != null ? store.timer(slot) : aiTimer; }
+    protected void setAiTimer(long time) {
+        if (store != null) store.setTimer(slot, time);
+        else aiTimer = time;
+    }
+    protected int getHeading() { return store != null ? store.heading(slot) : heading; }
+    protected void setHeading(int direction) {
+        if (store != null) store.setHeading(slot, direction);
+        else heading = direction;
+    }
+
     // Getters
-    public double getX() { return x; }
-    public double getY() { return y; }
+    public double getX() { return store != null ? store.x(slot) : x; }
+    public double getY() { return store != null ? store.y(slot) : y; }
+    public double getSpeed() { return store != null ? store.speed(slot) : speed; }
     public int getDamage() { return damage; }
-    public boolean isAlive() { return isAlive; }
-    public int getHealth() { return health; } // Ajouté pour BossEnemy
+    public boolean isAlive() { return store != null ? store.isAlive(slot) : isAlive; }
+    public int getHealth() { return store != null ? store.health(slot) : health; } // Ajouté pour BossEnemy
+    public long getLastContactTime() { return store != null ? store.lastContact(slot) : lastContactTime; }
+    public void setLastContactTime(long lastContactTime) {
+        if (store != null) store.setLastContact(slot, lastContactTime);
+        else this.lastContactTime = lastContactTime;
+    }
 }
\ No newline at end of file
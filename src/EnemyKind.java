@@ -0,0 +1,35 @@
+/**
+ * Enemy archetypes, used to rebuild enemies from compact data (dormant rooms).
+ * Each kind knows how to create a fresh enemy with its standard stats.
+ */
+public enum EnemyKind {
+    WANDERER,
+    STATIC_SHOOTER,
+    FOLLOWER,
+    BOSS;
+
+    private static final EnemyKind[] VALUES = values();
+
+    // Creates a new enemy of this kind at a pixel position; seed drives its own AI randomness
+    public Enemy create(double x, double y, GameMap gameMap, long seed) {
+        return switch (this) {
+            case WANDERER -> new Wanderer(x, y, 3, 1, 1.0, gameMap, seed);
+            case STATIC_SHOOTER -> new StaticShooter(x, y, 3, 1);
+            case FOLLOWER -> new Follower(x, y, 3, 1, 0.5, gameMap);
+            case BOSS -> new BossEnemy(x, y);
+        };
+    }
+
+    // Returns the kind of an existing enemy
+    public static EnemyKind of(Enemy enemy) {
+        if (enemy instanceof BossEnemy) return BOSS;
+        if (enemy instanceof StaticShooter) return STATIC_SHOOTER;
+        if (enemy instanceof Follower) return FOLLOWER;
+        if (enemy instanceof Wanderer) return WANDERER;
+        throw new IllegalArgumentException("Unknown enemy type: " + enemy.getClass().getName());
+    }
+
+    public static EnemyKind fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -1,27 +1,196 @@
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.IntStream;
 import javafx.scene.canvas.GraphicsContext;
 
 /**
  * Manages the list of enemies in the current room.
  * Handles updating, rendering, and collision detection for all enemies.
+ * The enemies' state lives in an EnemyStore kept in the same order as the enemy
+ * list, and each frame runs systems over its dense arrays: movement (wanderers),
+ * path following (followers), shooting (static shooters), projectile hits and
+ * contact damage. Only the boss timeline still runs as a per-object update().
+ * Large rooms run the movement systems across cores; each slot only writes its
+ * own entries, and projectiles are spawned in slot order afterwards so the
+ * result matches the serial path.
  */
 public class EnemyManager {
+    // Below this many enemies the fork/join overhead outweighs the gain
+    private static final int PARALLEL_THRESHOLD = 64;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
     private List<Enemy> enemies;
+    private boolean parallelUpdate = true;
+    private final EnemyStore store;
+    private final AIScheduler scheduler;
+    private final ShooterAlignmentIndex shooterIndex;
 
     public EnemyManager() {
         enemies = new ArrayList<>();
+        store = new EnemyStore();
+        scheduler = new AIScheduler();
+        shooterIndex = new ShooterAlignmentIndex();
     }
 
     // Adds an enemy to the current list
     public void addEnemy(Enemy enemy) {
         enemies.add(enemy);
+        store.add(enemy);
+        if (enemy instanceof StaticShooter shooter) {
+            shooterIndex.add(shooter);
+        }
     }
 
     // Updates all enemies (AI, movement, etc.)
     public void updateAll(Player player, ProjectileManager projectileManager, GameMap gameMap) {
-        for (Enemy enemy : enemies) {
-            enemy.update(player, projectileManager, gameMap);
+        // Expensive AI work is queued and only runs within the scheduler's frame budget
+        long now = System.nanoTime();
+        for (int slot = 0; slot < store.size(); slot++) {
+            if (store.isAlive(slot)) {
+                store.entity(slot).scheduleWork(scheduler, player, now);
+            }
+        }
+        scheduler.runFrame(player, gameMap);
+
+        // Arms only the shooters whose row/column the player just entered
+        shooterIndex.onPlayerMoved(player.getX(), player.getY());
+
+        // Movement systems: each slot reads the room and writes only its own entries
+        Room room = gameMap.getCurrentRoom();
+        int count = store.size();
+        if (room != null) {
+            if (parallelUpdate && count >= PARALLEL_THRESHOLD) {
+                room.prepareForConcurrentReads();
+                IntStream.range(0, count).parallel().forEach(slot -> move(slot, room));
+            } else {
+                for (int slot = 0; slot < count; slot++) {
+                    move(slot, room);
+                }
+            }
+        }
+
+        // Per-object behaviour (boss timeline), its projectile intents merged in slot order
+        for (int slot = 0; slot < count; slot++) {
+            if (store.isKind(slot, EnemyKind.BOSS) && store.isAlive(slot)) {
+                Enemy boss = store.entity(slot);
+                boss.update(player, projectileManager, gameMap);
+                boss.flushSpawnIntents(projectileManager);
+            }
+        }
+
+        applyShooting(player, projectileManager, now);
+        applyContactDamage(player);
+    }
+
+    private void move(int slot, Room room) {
+        if (!store.isAlive(slot)) return;
+        if (store.isKind(slot, EnemyKind.WANDERER)) {
+            wander(slot, room);
+        } else if (store.isKind(slot, EnemyKind.FOLLOWER)) {
+            followPath(slot, room);
+        }
+    }
+
+    // Movement system: straight line along the heading, a new random heading on a wall
+    private void wander(int slot, Room room) {
+        double x = store.x(slot);
+        double y = store.y(slot);
+        double speed = store.speed(slot);
+        switch (DIRECTIONS[store.heading(slot)]) {
+            case NORTH -> y -= speed;
+            case SOUTH -> y += speed;
+            case EAST -> x += speed;
+            case WEST -> x -= speed;
+            default -> { }
+        }
+        if (CollisionSystem.canEnemyMoveTo(x, y, room)) {
+            store.setPosition(slot, x, y);
+        } else {
+            // The wanderer's own generator: the same heading whichever worker runs this slot
+            store.setHeading(slot, ((Wanderer) store.entity(slot)).randomHeading());
+            store.setTimer(slot, System.nanoTime());
+        }
+    }
+
+    // Path-following system: axis-aligned steps towards the follower's current waypoint
+    private void followPath(int slot, Room room) {
+        if (!store.hasTarget(slot)) return;
+        double x = store.x(slot);
+        double y = store.y(slot);
+        double speed = store.speed(slot);
+        double targetX = store.targetX(slot);
+        double targetY = store.targetY(slot);
+        double dx = targetX - x;
+        double dy = targetY - y;
+        double dist = Math.hypot(dx, dy);
+
+        if (dist > 0) {
+            double absDx = Math.abs(dx);
+            double absDy = Math.abs(dy);
+            double stepX = x + Math.signum(dx) * Math.min(speed, absDx);
+            double stepY = y + Math.signum(dy) * Math.min(speed, absDy);
+            // Major axis first for rectilinear movement, the other axis if it is blocked
+            if (absDx >= absDy) {
+                if (CollisionSystem.canEnemyMoveTo(stepX, y, room)) {
+                    store.setPosition(slot, stepX, y);
+                } else if (absDy > 0 && CollisionSystem.canEnemyMoveTo(x, stepY, room)) {
+                    store.setPosition(slot, x, stepY);
+                }
+            } else {
+                if (CollisionSystem.canEnemyMoveTo(x, stepY, room)) {
+                    store.setPosition(slot, x, stepY);
+                } else if (absDx > 0 && CollisionSystem.canEnemyMoveTo(stepX, y, room)) {
+                    store.setPosition(slot, stepX, y);
+                }
+            }
+        }
+
+        // Next waypoint once close enough; snap to the centre only when reachable in one step
+        if (dist <= Follower.WAYPOINT_REACH_THRESHOLD) {
+            if (dist <= speed + 0.5 && !room.isPositionBlocked(targetX, targetY)) {
+                store.setPosition(slot, targetX, targetY);
+            }
+            ((Follower) store.entity(slot)).advanceWaypoint();
+        }
+    }
+
+    // Shooting system: armed shooters with a fresh line of sight fire once their cooldown is over,
+    // when the player is aligned horizontally or vertically (10 px tolerance)
+    private void applyShooting(Player player, ProjectileManager projectileManager, long now) {
+        double px = player.getX();
+        double py = player.getY();
+        for (int slot = 0; slot < store.size(); slot++) {
+            if (!store.isArmed(slot) || !store.isAlive(slot)) continue;
+            if (now >= store.sightUntil(slot)) continue;
+            double x = store.x(slot);
+            double y = store.y(slot);
+            if (Math.abs(x - px) >= 10 && Math.abs(y - py) >= 10) continue;
+            if (now - store.timer(slot) < StaticShooter.SHOOT_COOLDOWN) continue;
+            projectileManager.addProjectile(StaticShooter.shotAt(x, y, store.entity(slot).getDamage(), player));
+            store.setTimer(slot, now);
+        }
+    }
+
+    // Enables or disables the multithreaded update phase (serial path is used for small rooms anyway)
+    public void setParallelUpdate(boolean parallelUpdate) {
+        this.parallelUpdate = parallelUpdate;
+    }
+
+    // Contact damage system: hurts the player when an enemy is within its contact range
+    private void applyContactDamage(Player player) {
+        double px = player.getX();
+        double py = player.getY();
+        long now = System.nanoTime();
+        for (int i = 0; i < store.size(); i++) {
+            double range = store.contactRange(i);
+            if (range <= 0 || !store.isAlive(i)) continue;
+            double dx = px - store.x(i);
+            double dy = py - store.y(i);
+            if (dx * dx + dy * dy > range * range) continue;
+            if (now - store.lastContact(i) >= Enemy.CONTACT_COOLDOWN) {
+                player.takeDamage(store.entity(i).getDamage());
+                store.setLastContact(i, now);
+            }
         }
     }
 
@@ -36,32 +205,61 @@ public class EnemyManager {
         }
     }
 
-    // Removes all dead enemies from the list
-    public void removeDeadEnemies() {
+    // Removes all dead enemies from the list and returns them (empty if none died),
+    // so the caller can remove them from the room as well
+    public List<Enemy> removeDeadEnemies() {
+        List<Enemy> dead = null;
+        for (int slot = 0; slot < store.size(); slot++) {
+            if (!store.isAlive(slot)) {
+                if (dead == null) dead = new ArrayList<>();
+                dead.add(store.entity(slot));
+            }
+        }
+        if (dead == null) return List.of();
         enemies.removeIf(enemy -> !enemy.isAlive());
+        store.rebuild(enemies);
+        shooterIndex.rebuild(enemies);
+        return dead;
     }
 
     // Checks for collisions between projectiles and enemies
     public void checkProjectileCollisions(ProjectileManager projectileManager){
-        for (Enemy enemy : enemies) {
-            if (!enemy.isAlive()) continue;
-            for (Projectile projectile : projectileManager.getProjectiles()) {
+        List<Projectile> projectiles = projectileManager.getProjectilesView();
+        for (int slot = 0; slot < store.size(); slot++) {
+            if (!store.isAlive(slot)) continue;
+            double ex = store.x(slot);
+            double ey = store.y(slot);
+            double radius = store.hitRadius(slot);
+            for (int i = 0; i < projectiles.size(); i++) {
+                Projectile projectile = projectiles.get(i);
                 // Only projectiles targeting enemies can hit them
                 if (projectile.getTarget() != ProjectileTarget.ENEMY) continue;
-                if (CollisionSystem.entitiesCollide(
-                        projectile.getX(), projectile.getY(), projectile.getSize(),
-                        enemy.getX(), enemy.getY(), enemy.getCollisionSize())) {
-                    enemy.takeDamage(projectile.getDamage());
+                // Already consumed by another enemy this tick
+                if (projectile.isMarkedForRemoval()) continue;
+                double dx = projectile.getX() - ex;
+                double dy = projectile.getY() - ey;
+                double reach = projectile.getSize() / 2 + radius;
+                if (dx * dx + dy * dy < reach * reach) {
+                    store.damage(slot, projectile.getDamage());
                     projectileManager.markForRemoval(projectile);
                     break; // A projectile can only hit one enemy
                 }
             }
         }
+        projectileManager.flushRemovals();
     }
 
     // Replaces the current enemy list with a new one (used when entering a new room)
     public void setEnemies(List<Enemy> enemies) {
         this.enemies = enemies;
+        store.rebuild(enemies);
+        shooterIndex.rebuild(enemies);
+        scheduler.clear();
+    }
+
+    // Returns the AI scheduler (for deferred-work counters)
+    public AIScheduler getScheduler() {
+        return scheduler;
     }
 
     // Returns the current list of enemies (for synchronization with Room)
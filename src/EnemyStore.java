@@ -0,0 +1,157 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Dense component storage for the enemies of the active room.
+ * Every enemy owns one slot in a set of parallel primitive arrays (kind, position,
+ * health, speed, alive flag, hit radius, contact range, cooldown timers and AI
+ * state), and the per-frame systems of EnemyManager iterate those arrays.
+ * While an enemy is attached, these arrays are its state: Enemy accessors read
+ * and write its slot, and nothing is copied back per frame. Detaching (room
+ * change, deaths rebuilding the slots) hands the durable state back to the
+ * enemy's own fields, which dormant rooms and snapshots read.
+ */
+public class EnemyStore {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Enemy[] entities;
+    private byte[] kind;            // EnemyKind ordinal
+    private double[] posX;
+    private double[] posY;
+    private int[] health;
+    private double[] speed;
+    private boolean[] alive;
+    private double[] hitRadius;     // Half of the collision size
+    private double[] contactRange;  // Distance at which contact damage applies (0 = none)
+    private long[] lastContact;     // Last contact hit on the player (nanoseconds)
+    private long[] timer;           // Per-kind AI timer: last heading change, path refresh or shot
+    private byte[] heading;         // Direction ordinal of a wanderer
+    private double[] targetX;       // Waypoint a follower is walking to (pixels)
+    private double[] targetY;
+    private boolean[] hasTarget;
+    private boolean[] armed;        // Shooter aligned with the player (ShooterAlignmentIndex)
+    private long[] sightUntil;      // Line of sight to the player trusted until this time
+    private int size;
+
+    public EnemyStore() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        entities = new Enemy[capacity];
+        kind = new byte[capacity];
+        posX = new double[capacity];
+        posY = new double[capacity];
+        health = new int[capacity];
+        speed = new double[capacity];
+        alive = new boolean[capacity];
+        hitRadius = new double[capacity];
+        contactRange = new double[capacity];
+        lastContact = new long[capacity];
+        timer = new long[capacity];
+        heading = new byte[capacity];
+        targetX = new double[capacity];
+        targetY = new double[capacity];
+        hasTarget = new boolean[capacity];
+        armed = new boolean[capacity];
+        sightUntil = new long[capacity];
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= entities.length) return;
+        int newCapacity = Math.max(capacity, entities.length * 2);
+        entities = Arrays.copyOf(entities, newCapacity);
+        kind = Arrays.copyOf(kind, newCapacity);
+        posX = Arrays.copyOf(posX, newCapacity);
+        posY = Arrays.copyOf(posY, newCapacity);
+        health = Arrays.copyOf(health, newCapacity);
+        speed = Arrays.copyOf(speed, newCapacity);
+        alive = Arrays.copyOf(alive, newCapacity);
+        hitRadius = Arrays.copyOf(hitRadius, newCapacity);
+        contactRange = Arrays.copyOf(contactRange, newCapacity);
+        lastContact = Arrays.copyOf(lastContact, newCapacity);
+        timer = Arrays.copyOf(timer, newCapacity);
+        heading = Arrays.copyOf(heading, newCapacity);
+        targetX = Arrays.copyOf(targetX, newCapacity);
+        targetY = Arrays.copyOf(targetY, newCapacity);
+        hasTarget = Arrays.copyOf(hasTarget, newCapacity);
+        armed = Arrays.copyOf(armed, newCapacity);
+        sightUntil = Arrays.copyOf(sightUntil, newCapacity);
+    }
+
+    // Appends an enemy, moves its state into the arrays and returns its slot
+    public int add(Enemy enemy) {
+        ensureCapacity(size + 1);
+        int slot = size++;
+        entities[slot] = enemy;
+        kind[slot] = (byte) EnemyKind.of(enemy).ordinal();
+        hitRadius[slot] = enemy.getCollisionSize() / 2.0;
+        contactRange[slot] = enemy.getContactRange();
+        hasTarget[slot] = false;
+        armed[slot] = false;
+        sightUntil[slot] = 0;
+        enemy.attach(this, slot);
+        return slot;
+    }
+
+    // Replaces the whole content with the given enemies, keeping list order as slot order
+    public void rebuild(List<Enemy> enemies) {
+        clear();
+        ensureCapacity(enemies.size());
+        for (Enemy enemy : enemies) {
+            add(enemy);
+        }
+    }
+
+    // Detaches every enemy, handing its state back to its own fields
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            entities[i].detach(this);
+            entities[i] = null;
+        }
+        size = 0;
+    }
+
+    public int size() { return size; }
+    public Enemy entity(int slot) { return entities[slot]; }
+    public EnemyKind kind(int slot) { return EnemyKind.fromOrdinal(kind[slot]); }
+    public boolean isKind(int slot, EnemyKind k) { return kind[slot] == k.ordinal(); }
+
+    public double x(int slot) { return posX[slot]; }
+    public double y(int slot) { return posY[slot]; }
+    public void setPosition(int slot, double x, double y) { posX[slot] = x; posY[slot] = y; }
+
+    public int health(int slot) { return health[slot]; }
+    public boolean isAlive(int slot) { return alive[slot]; }
+    public void setHealth(int slot, int value) { health[slot] = value; alive[slot] = value > 0; }
+
+    // Damage system entry point: lowers health and clears the alive flag at 0
+    public void damage(int slot, int amount) {
+        health[slot] -= amount;
+        if (health[slot] <= 0) alive[slot] = false;
+    }
+
+    public double speed(int slot) { return speed[slot]; }
+    public void setSpeed(int slot, double value) { speed[slot] = value; }
+    public double hitRadius(int slot) { return hitRadius[slot]; }
+    public double contactRange(int slot) { return contactRange[slot]; }
+
+    public long lastContact(int slot) { return lastContact[slot]; }
+    public void setLastContact(int slot, long time) { lastContact[slot] = time; }
+    public long timer(int slot) { return timer[slot]; }
+    public void setTimer(int slot, long time) { timer[slot] = time; }
+
+    public int heading(int slot) { return heading[slot]; }
+    public void setHeading(int slot, int direction) { heading[slot] = (byte) direction; }
+
+    public boolean hasTarget(int slot) { return hasTarget[slot]; }
+    public double targetX(int slot) { return targetX[slot]; }
+    public double targetY(int slot) { return targetY[slot]; }
+    public void setTarget(int slot, double x, double y) { targetX[slot] = x; targetY[slot] = y; hasTarget[slot] = true; }
+    public void clearTarget(int slot) { hasTarget[slot] = false; }
+
+    public boolean isArmed(int slot) { return armed[slot]; }
+    public void setArmed(int slot, boolean value) { armed[slot] = value; }
+    public long sightUntil(int slot) { return sightUntil[slot]; }
+    public void setSightUntil(int slot, long time) { sightUntil[slot] = time; }
+}
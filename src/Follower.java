@@ -8,17 +8,16 @@ import javafx.scene.paint.Color;
 
 /**
  * Enemy that follows the player and attacks in close range.
+ * The BFS path is a PATH_REFRESH job; its current waypoint is published to the
+ * EnemyStore, where EnemyManager's path-following system walks towards it.
  */
 public class Follower extends Enemy {
     private static final double ATTACK_RANGE = 25.0; // Distance to attack the player
-    private static final long ATTACK_COOLDOWN = 1_000_000_000; // 1 second in nanoseconds
-    private long lastAttackTime = 0;
     private final GameMap gameMap; // Reference to the game map for collision checks
     private List<Point2D> currentPath; // Current path to the player
     private int nextWaypointIndex; // Index of the next waypoint in the path
-    private long lastPathUpdateTime = 0; // Last time the path was updated
     private static final long PATH_UPDATE_INTERVAL = 250_000_000; // Update path every 0.5 seconds
-    private static final double WAYPOINT_REACH_THRESHOLD = 10.0; // Distance to consider a waypoint reached
+    static final double WAYPOINT_REACH_THRESHOLD = 10.0; // Distance to consider a waypoint reached
 
     public Follower(double x, double y, int health, int damage, double speed, GameMap gameMap) {
         super(x, y, health, damage, speed);
@@ -28,46 +27,66 @@ public class Follower extends Enemy {
     }
 
     public Point2D getTilePosition() {
-        int tileX = (int) (x / MapDimensions.TILE_SIZE);
-        int tileY = (int) (y / MapDimensions.TILE_SIZE);
+        int tileX = (int) (getX() / MapDimensions.TILE_SIZE);
+        int tileY = (int) (getY() / MapDimensions.TILE_SIZE);
         return new Point2D(tileX, tileY);
     }
 
+    // Requests a BFS refresh when the current path is stale; the AIScheduler runs it within its budget
     @Override
-    public void update(Player player, ProjectileManager projectileManager, GameMap gameMap) {
-        if (isAlive) {
-            // Calculate distance to the player
-            double deltaX = player.getX() - this.x;
-            double deltaY = player.getY() - this.y;
-            double distance = Math.hypot(deltaX, deltaY);
-
-            long now = System.nanoTime();
-            if (now - lastPathUpdateTime >= PATH_UPDATE_INTERVAL || currentPath.isEmpty()) {
-                Point2D myTile = this.getTilePosition();
-                Point2D targetTile = player.getTilePosition();
-                
-                // Vérification : les deux tiles doivent être walkable
-                if (gameMap.isWalkable((int)myTile.getX(), (int)myTile.getY()) && 
-                    gameMap.isWalkable((int)targetTile.getX(), (int)targetTile.getY())) {
-                    currentPath = bfsPath(gameMap, myTile, targetTile);
-                    nextWaypointIndex = 1;  // Sauter la tuile de départ
-                    lastPathUpdateTime = now;
-                }
-            }
+    public void scheduleWork(AIScheduler scheduler, Player player, long now) {
+        if (now - getAiTimer() >= PATH_UPDATE_INTERVAL || currentPath.isEmpty()) {
+            scheduler.submit(this, AIScheduler.JobType.PATH_REFRESH);
+        }
+    }
 
-            // Suivi du chemin via waypoints
-            this.movementTowardsPlayer();
+    @Override
+    public void runScheduledJob(AIScheduler.JobType type, Player player, GameMap gameMap) {
+        if (type != AIScheduler.JobType.PATH_REFRESH) return;
+
+        Point2D myTile = this.getTilePosition();
+        Point2D targetTile = player.getTilePosition();
+
+        // Vérification : les deux tiles doivent être walkable
+        if (gameMap.isWalkable((int)myTile.getX(), (int)myTile.getY()) && 
+            gameMap.isWalkable((int)targetTile.getX(), (int)targetTile.getY())) {
+            currentPath = bfsPath(gameMap, myTile, targetTile);
+            nextWaypointIndex = 1;  // Sauter la tuile de départ
+            setAiTimer(System.nanoTime());
+            publishWaypoint();
+        }
+    }
 
-            // Attack if close enough and cooldown has passed
-            if (distance <= ATTACK_RANGE) {
-                long currentTime = System.nanoTime();
-                if (currentTime - lastAttackTime >= ATTACK_COOLDOWN) {
-                    player.takeDamage(damage);
-                    lastAttackTime = currentTime;
-                }
-            }
+    // Called by the path-following system once the current waypoint is reached
+    void advanceWaypoint() {
+        nextWaypointIndex++;
+        publishWaypoint();
+    }
+
+    @Override
+    protected void onAttached(EnemyStore store, int slot) {
+        publishWaypoint();
+    }
+
+    // Writes the centre of the next waypoint to the store, or clears it at the end of the path
+    private void publishWaypoint() {
+        EnemyStore store = getStore();
+        if (store == null) return;
+        if (nextWaypointIndex < currentPath.size()) {
+            Point2D waypoint = currentPath.get(nextWaypointIndex);
+            store.setTarget(getSlot(),
+                    waypoint.getX() * MapDimensions.TILE_SIZE + MapDimensions.TILE_SIZE / 2.0,
+                    waypoint.getY() * MapDimensions.TILE_SIZE + MapDimensions.TILE_SIZE / 2.0);
+        } else {
+            store.clearTarget(getSlot());
         }
     }
+
+    // Attacks in close range through EnemyManager's contact system
+    @Override
+    public double getContactRange() {
+        return ATTACK_RANGE;
+    }
         
     // BFS returning path as list of tiles from start -> goal (inclusive).
     public static List<Point2D> bfsPath(GameMap map, Point2D start, Point2D goal) {
@@ -128,85 +147,9 @@ public class Follower extends Enemy {
         return path;
     }
     
-    // movement towards next waypoint in path — force axis-aligned (H/V) moves
-    public void movementTowardsPlayer() {
-        if (!currentPath.isEmpty() && nextWaypointIndex < currentPath.size()) {
-            Point2D targetWaypoint = currentPath.get(nextWaypointIndex);
-
-            // Convertir tile → pixel (centre de la tile)
-            double targetX = targetWaypoint.getX() * MapDimensions.TILE_SIZE + MapDimensions.TILE_SIZE / 2.0;
-            double targetY = targetWaypoint.getY() * MapDimensions.TILE_SIZE + MapDimensions.TILE_SIZE / 2.0;
-
-            double dx = targetX - this.x;
-            double dy = targetY - this.y;
-            double dist = Math.hypot(dx, dy);
-
-            if (dist > 0) {
-                double absDx = Math.abs(dx);
-                double absDy = Math.abs(dy);
-                Room room = gameMap.getCurrentRoom();
-
-                // Choose major axis first to get rectilinear movement
-                if (absDx >= absDy) {
-                    // Try horizontal move
-                    double step = Math.min(speed, absDx);
-                    double dir = Math.signum(dx);
-                    double nx = this.x + dir * step;
-                    double ny = this.y;
-                    if (CollisionSystem.canEnemyMoveTo(nx, ny, room)) {
-                        this.x = nx;
-                    } else {
-                        // fallback to vertical
-                        if (absDy > 0) {
-                            double vstep = Math.min(speed, absDy);
-                            double vdir = Math.signum(dy);
-                            double vx = this.x;
-                            double vy = this.y + vdir * vstep;
-                            if (CollisionSystem.canEnemyMoveTo(vx, vy, room)) {
-                                this.y = vy;
-                            }
-                        }
-                    }
-                } else {
-                    // Try vertical move first
-                    double vstep = Math.min(speed, absDy);
-                    double vdir = Math.signum(dy);
-                    double vx = this.x;
-                    double vy = this.y + vdir * vstep;
-                    if (CollisionSystem.canEnemyMoveTo(vx, vy, room)) {
-                        this.y = vy;
-                    } else {
-                        // fallback to horizontal
-                        if (absDx > 0) {
-                            double step = Math.min(speed, absDx);
-                            double dir = Math.signum(dx);
-                            double nx = this.x + dir * step;
-                            double ny = this.y;
-                            if (CollisionSystem.canEnemyMoveTo(nx, ny, room)) {
-                                this.x = nx;
-                            }
-                        }
-                    }
-                }
-            }
-
-            // Advance to next waypoint if close enough. Snap to center only when reachable in one step.
-            if (dist <= WAYPOINT_REACH_THRESHOLD) {
-                nextWaypointIndex++;
-                if (dist <= speed + 0.5) {
-                    Room room = gameMap.getCurrentRoom();
-                    if (!room.isPositionBlocked(targetX, targetY)) {
-                        this.x = targetX;
-                        this.y = targetY;
-                    }
-                }
-            }
-        }
-    }
-
     @Override
     public void render(GraphicsContext gc, double screenX, double screenY, double tileSize) {
-        if (isAlive) {
+        if (isAlive()) {
             double size = tileSize * MapDimensions.ENEMY_RENDER_SCALE;
             Color followerColor = Color.PURPLE;
             gc.setFill(followerColor);
@@ -1,3 +1,4 @@
+import java.io.IOException;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -5,6 +6,7 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
 import javafx.animation.AnimationTimer;
 import javafx.animation.PauseTransition;
@@ -40,6 +42,13 @@ public class GameApp extends Application {
     private boolean transitionVideoEnded = false;
     private boolean transitionMinTimeElapsed = false;
     private final List<ItemDefinition> collectedItems = new ArrayList<>();
+    private final LevelPreloader levelPreloader = new LevelPreloader();
+    private static final Path QUICKSAVE_FILE = Paths.get("saves", "quicksave.bin");
+    private static final Path AUTOSAVE_FILE = Paths.get("saves", "autosave.bin");
+    private final AutosaveService autosave = new AutosaveService(AUTOSAVE_FILE);
+    // -Dhugo.dev=true: a prefab edited while playing is re-applied to the current room
+    private static final boolean DEV_MODE = Boolean.getBoolean("hugo.dev");
+    private PrefabWatcher prefabWatcher;
 
     
     // Set to manage multiple key presses
@@ -59,6 +68,15 @@ public class GameApp extends Application {
 
     @Override
     public void start(Stage primaryStage) {
+        // Parse the room prefabs while the menu is shown
+        java.util.concurrent.CompletableFuture.runAsync(PrefabLibrary::getDefault);
+        // Prefabs saved from the editor are picked up without re-parsing saved_rooms
+        try {
+            prefabWatcher = PrefabWatcher.start(changed ->
+                    javafx.application.Platform.runLater(() -> onPrefabsReloaded(changed)));
+        } catch (IOException | UnsupportedOperationException ex) {
+            System.err.println("Prefab hot reload disabled: " + ex.getMessage());
+        }
         showMenu(primaryStage);
     }
 
@@ -69,11 +87,18 @@ public class GameApp extends Application {
         title.setStyle("-fx-text-fill: white; -fx-font-size: 36px;");
         Button startBtn = new Button("Jouer");
         startBtn.setStyle("-fx-font-size: 20px;");
+        Button continueBtn = new Button("Continuer");
+        continueBtn.setStyle("-fx-font-size: 20px;");
+        continueBtn.setDisable(!autosave.hasSave());
+        Button endlessBtn = new Button("Mode infini");
+        endlessBtn.setStyle("-fx-font-size: 20px;");
         Button editMapBtn = new Button("Edit Map"); 
         editMapBtn.setStyle("-fx-font-size: 20px;"); 
         Button exitBtn = new Button("Quit");
         exitBtn.setStyle("-fx-font-size: 20px;");
-        VBox vbox = new VBox(30, title, startBtn, editMapBtn, exitBtn);
+        Label status = new Label(); // Why "Continuer" failed, if it did
+        status.setStyle("-fx-text-fill: #e66; -fx-font-size: 16px;");
+        VBox vbox = new VBox(30, title, startBtn, continueBtn, endlessBtn, editMapBtn, exitBtn, status);
         vbox.setAlignment(Pos.CENTER);
         menuRoot.getChildren().add(vbox);
 
@@ -83,6 +108,14 @@ public class GameApp extends Application {
         primaryStage.show();
 
         startBtn.setOnAction(e -> startGame(primaryStage));
+        continueBtn.setOnAction(e -> {
+            String failure = continueGame(primaryStage);
+            if (failure != null) {
+                status.setText("Impossible de reprendre la partie : " + failure);
+                continueBtn.setDisable(true);
+            }
+        });
+        endlessBtn.setOnAction(e -> startGame(primaryStage, true));
         // open the map editor in a new window
         editMapBtn.setOnAction(e -> {
             try {
@@ -99,7 +132,39 @@ public class GameApp extends Application {
     }
 
     public void startGame(Stage primaryStage){
+        startGame(primaryStage, false);
+    }
+
+    // endless: rooms are streamed around the player instead of generating a bounded level
+    public void startGame(Stage primaryStage, boolean endless){
         currentLevel = 0;
+        ProjectileManager projectiles = new ProjectileManager();
+        startGame(primaryStage, projectiles, endless ? new EndlessGameMap(projectiles) : new GameMap(projectiles), null);
+    }
+
+    // Resumes the autosave; the snapshot is read and its map rebuilt before anything else,
+    // so a bad save leaves the menu in place. Returns null on success, else the reason.
+    private String continueGame(Stage primaryStage) {
+        GameSnapshot snapshot;
+        ProjectileManager projectiles = new ProjectileManager();
+        GameMap restored;
+        try {
+            snapshot = GameSnapshot.read(autosave.getFile());
+            snapshot.restoreItems(); // Fails on unknown items before the game starts
+            restored = snapshot.restoreMap(projectiles);
+        } catch (IOException | RuntimeException ex) {
+            System.err.println("Could not load " + autosave.getFile() + ": " + ex.getMessage());
+            return ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+        }
+        currentLevel = snapshot.getLevel();
+        startGame(primaryStage, projectiles, restored, snapshot);
+        return null;
+    }
+
+    // saved: snapshot the map was restored from (player, items and projectiles are applied from it)
+    private void startGame(Stage primaryStage, ProjectileManager projectiles, GameMap map, GameSnapshot saved){
+        levelPreloader.cancel();
+        autosave.reset();
         transitionInProgress = false;
         collectedItems.clear();
 
@@ -116,14 +181,25 @@ public class GameApp extends Application {
         this.player = new Player(MapDimensions.ROOM_CENTER_X, MapDimensions.ROOM_CENTER_Y, 6, 1);
 
         // Manages all projectiles in the game
-        this.projectileManager = new ProjectileManager();
+        this.projectileManager = projectiles;
 
         // Manages all rooms and navigation
-        this.gameMap = new GameMap(projectileManager);
+        this.gameMap = map;
 
         // Manages all enemies in the current room
         this.enemyManager = new EnemyManager();
 
+        if (saved != null) {
+            try {
+                collectedItems.addAll(saved.restoreItems());
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex); // Already checked by continueGame
+            }
+            saved.restorePlayer(player);
+            saved.restoreProjectiles(projectileManager);
+            enemyManager.setEnemies(new java.util.ArrayList<>(gameMap.getCurrentRoom().getEnemies()));
+        }
+
         
 
         // Main game loop (AnimationTimer)
@@ -132,6 +208,9 @@ public class GameApp extends Application {
             public void handle(long now) {
                 if (!player.isAlive()) {
                     this.stop(); // stop the game loop before changing scene
+                    autosave.discard(); // A finished run cannot be continued
+                    System.err.println("[DEBUG] " + autosave.describeMetrics());
+                    System.err.println("[DEBUG] " + enemyManager.getScheduler().describeCounters());
                     javafx.application.Platform.runLater(() -> showMenu(primaryStage));
                     return;
                 }
@@ -150,12 +229,11 @@ public class GameApp extends Application {
                 // Update all enemies (AI, movement, etc.)
                 enemyManager.updateAll(player, projectileManager, gameMap);
                 enemyManager.checkProjectileCollisions(projectileManager);
-                enemyManager.removeDeadEnemies();
-
-                // Isaac-like: synchronize Room's enemy list with EnemyManager (for door logic)
+                // Isaac-like: dead enemies leave the Room too (door logic, free spawn tiles)
                 Room currentRoom = gameMap.getCurrentRoom();
-                currentRoom.getEnemiesInternal().clear();
-                currentRoom.getEnemiesInternal().addAll(enemyManager.getEnemies());
+                for (Enemy dead : enemyManager.removeDeadEnemies()) {
+                    currentRoom.removeEnemy(dead);
+                }
                 // If all enemies are dead and room not yet marked as completed, open doors and mark as clear
                 if (!currentRoom.isCompleted() && currentRoom.getEnemies().isEmpty()) {
                     currentRoom.setDoorsClosed(false);
@@ -244,6 +322,11 @@ public class GameApp extends Application {
                     }
                 }
 
+                // Periodic autosave: only the capture runs here, the file is written in the background
+                if (autosave.isDue(now)) {
+                    autosave();
+                }
+
                 double width = gameCanvas.getWidth();
                 double height = gameCanvas.getHeight();
                 double tileSize = Math.min(width, height) / MapDimensions.ROOM_SIZE;
@@ -292,7 +375,15 @@ public class GameApp extends Application {
         primaryStage.show();
 
         // Handle key events for player movement
-        scene.setOnKeyPressed(event -> pressedKeys.add(event.getCode()));
+        scene.setOnKeyPressed(event -> {
+            if (event.getCode() == KeyCode.F5) {
+                quickSave();
+            } else if (event.getCode() == KeyCode.F9) {
+                quickLoad();
+            } else {
+                pressedKeys.add(event.getCode());
+            }
+        });
         scene.setOnKeyReleased(event -> pressedKeys.remove(event.getCode()));
 
     }
@@ -405,8 +496,18 @@ public class GameApp extends Application {
             // Switch to the next room and reposition player
             gameMap.switchToNextRoom();
 
-            // Load the new room's enemies into the EnemyManager
+            // The room we left only keeps its compact form; the new one is rehydrated
+            currentRoom.makeDormant();
             Room newRoom = gameMap.getCurrentRoom();
+            newRoom.wake();
+            newRoom.materialize(); // Enemies, boss or item are only created on first entry
+
+            // The boss fight leaves plenty of time to build the next level in the background
+            if (newRoom.getType() == RoomType.BOSS) {
+                levelPreloader.prefetch(projectileManager, currentLevel + 1);
+            }
+
+            // Load the new room's enemies into the EnemyManager
             enemyManager.setEnemies(new java.util.ArrayList<>(newRoom.getEnemies()));
 
             // Isaac-like: close doors if room is not clear (except start/boss)
@@ -419,9 +520,91 @@ public class GameApp extends Application {
             // Reposition player based on entry direction
             int[] spawnPos = gameMap.getPlayerSpawnPosition(actualExitDirection);
             player.setPosition(spawnPos[0], spawnPos[1]);
+
+            autosave();
         }
     }
     
+    // SAVE / LOAD
+
+    // F5: writes the whole run to the quicksave file
+    private void quickSave() {
+        if (transitionInProgress || gameMap == null) return;
+        try {
+            long start = System.nanoTime();
+            GameSnapshot snapshot = GameSnapshot.capture(currentLevel, collectedItems, player, gameMap, projectileManager);
+            snapshot.write(QUICKSAVE_FILE);
+            System.err.printf("[DEBUG] Game saved to %s (%d rooms, %.2f ms)%n",
+                    QUICKSAVE_FILE, snapshot.getRoomCount(), (System.nanoTime() - start) / 1e6);
+        } catch (IOException | IllegalStateException ex) {
+            System.err.println("Save failed: " + ex.getMessage());
+        }
+    }
+
+    // Queues an autosave of the run (endless runs are not saved)
+    private void autosave() {
+        if (transitionInProgress || gameMap == null || gameMap instanceof EndlessGameMap || !player.isAlive()) return;
+        autosave.save(currentLevel, collectedItems, player, gameMap, projectileManager);
+    }
+
+    // F9: replaces the current run with the quicksave
+    private void quickLoad() {
+        loadGame(QUICKSAVE_FILE);
+    }
+
+    private void loadGame(Path file) {
+        if (transitionInProgress || gameMap == null || !Files.exists(file)) return;
+        try {
+            GameSnapshot snapshot = GameSnapshot.read(file);
+            List<ItemDefinition> items = snapshot.restoreItems();
+            GameMap restored = snapshot.restoreMap(projectileManager);
+
+            levelPreloader.cancel();
+            pressedKeys.clear();
+            currentLevel = snapshot.getLevel();
+            gameMap = restored;
+            collectedItems.clear();
+            collectedItems.addAll(items);
+            snapshot.restorePlayer(player);
+            snapshot.restoreProjectiles(projectileManager);
+            enemyManager.setEnemies(new java.util.ArrayList<>(gameMap.getCurrentRoom().getEnemies()));
+            autosave.reset();
+            System.err.println("[DEBUG] Game loaded from " + file);
+        } catch (IOException | RuntimeException ex) {
+            System.err.println("Load failed: " + ex.getMessage());
+        }
+    }
+
+    // DEV MODE
+
+    // FX thread: re-applies the current room's prefab if it was among the reloaded ones.
+    // Rooms already generated elsewhere keep their layout until the next level.
+    private void onPrefabsReloaded(Set<String> changed) {
+        if (!DEV_MODE || gameMap == null || transitionInProgress) return;
+        Room room = gameMap.getCurrentRoom();
+        String layoutId = room.getLayoutId();
+        if (layoutId == null || !changed.contains(layoutId)) return;
+        RoomPrefab prefab = PrefabLibrary.getDefault().get(layoutId);
+        if (prefab == null) return; // Deleted: keep the walls in place
+
+        int[] previous = room.packedWalls();
+        room.applyPrefab(prefab);
+        if (!LevelValidator.isRoomTraversable(room)) {
+            System.err.println("[DEBUG] " + layoutId + " blocks a door of the current room, not re-applied");
+            room.restoreLayout(layoutId, previous);
+            return;
+        }
+        // The centre is always free in a traversable room
+        if (!CollisionSystem.canPlayerMoveTo(player.getX(), player.getY(), room)) {
+            player.setPosition((int) MapDimensions.ROOM_CENTER_X, (int) MapDimensions.ROOM_CENTER_Y);
+        }
+        // Enemies inside the new walls would be stuck there; the manager is re-synced with the room
+        if (room.relocateBlockedEnemies(new Random()) > 0) {
+            enemyManager.setEnemies(new ArrayList<>(room.getEnemies()));
+        }
+        System.err.println("[DEBUG] Re-applied " + layoutId + " to the current room");
+    }
+
     // Determines the actual exit direction based on player position
     private Direction getActualExitDirection(double playerX, double playerY) {
         final int TILE_SIZE = MapDimensions.TILE_SIZE;
@@ -479,6 +662,7 @@ public class GameApp extends Application {
 
     private void advanceToNextLevel() {
         transitionInProgress = true;
+        levelPreloader.prefetch(projectileManager, currentLevel + 1); // No-op if already started
         pressedKeys.clear();
         transitionVideoEnded = false;
         transitionMinTimeElapsed = false;
@@ -579,7 +763,7 @@ public class GameApp extends Application {
         System.err.println("[DEBUG] Next level: " + currentLevel);
 
         projectileManager.clearProjectiles();
-        gameMap = new GameMap(projectileManager);
+        gameMap = levelPreloader.take(projectileManager, currentLevel);
 
         Room startRoom = gameMap.getCurrentRoom();
         enemyManager.setEnemies(new java.util.ArrayList<>(startRoom.getEnemies()));
@@ -589,6 +773,14 @@ public class GameApp extends Application {
         transitionVideoEnded = false;
         transitionMinTimeElapsed = false;
         transitionInProgress = false;
+        autosave();
+    }
+
+    @Override
+    public void stop() throws IOException {
+        if (prefabWatcher != null) {
+            prefabWatcher.close();
+        }
     }
 
     public static void main(String[] args) {
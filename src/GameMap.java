@@ -1,22 +1,15 @@
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Random;
-import java.util.stream.Collectors;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
 
 public class GameMap {
-    private static final int GRID_SIZE = MapDimensions.GRID_SIZE;
-    private static final int MIN_ROOMS = 5;
     private static final int TILE_SIZE = MapDimensions.TILE_SIZE;
     private static final int ROOM_SIZE = MapDimensions.ROOM_SIZE;
     private static final int DOOR_POSITION = MapDimensions.DOOR_POSITION;
-    private final Room[][] grid;
+    private final RoomStore rooms; // Sparse room store (packed coordinates + index by type)
+    private final DungeonLayout.Settings settings;
     private int playerX;
     private int playerY;
     private Room startRoom;
@@ -24,286 +17,220 @@ public class GameMap {
     private Room currentRoom;
     private Room nextRoom;
     private final ProjectileManager projectileManager;
+    private final PrefabLibrary prefabs = PrefabLibrary.getDefault();
+    private final int level; // Level this map was generated for (more rooms on deeper levels)
+    private DungeonLayout layout; // Bitboard room placement the rooms were built from
+    private long seed;            // Seed of the accepted generation attempt
+    // Rejected levels are regenerated from a derived seed, at most this many times in total
+    private static final int MAX_GENERATION_ATTEMPTS = 8;
+    // Below this many rooms, populating them on the fork-join pool costs more than it saves
+    static final int PARALLEL_ROOM_THRESHOLD = 24;
+    private static final Direction[] CARDINALS = {Direction.NORTH, Direction.SOUTH, Direction.EAST, Direction.WEST};
+    private static final long LAYOUT_SALT = 0x2545F4914F6CDD1DL;
 
     public GameMap(ProjectileManager projectileManager) {
+        this(projectileManager, GameApp.currentLevel);
+    }
+
+    // Generation only reads its arguments, so a map can be built off the FX thread
+    public GameMap(ProjectileManager projectileManager, int level) {
+        this(projectileManager, level, DungeonLayout.Settings.DEFAULT);
+    }
+
+    // Generation settings include the grid size (rooms are stored sparsely, so large grids are cheap)
+    public GameMap(ProjectileManager projectileManager, int level, DungeonLayout.Settings settings) {
+        this(projectileManager, level, settings, new Random().nextLong());
+    }
+
+    // Same seed, level and settings always give the same layout and room content
+    public GameMap(ProjectileManager projectileManager, int level, DungeonLayout.Settings settings, long seed) {
         this.projectileManager = projectileManager;
-        grid = new Room[GRID_SIZE][GRID_SIZE];
-        initializeRooms();
+        this.level = level;
+        this.settings = settings;
+        rooms = new RoomStore(settings.gridSize());
+        generateValidLevel(seed);
         playerX = startRoom.getX();
         playerY = startRoom.getY();
         currentRoom = startRoom; // Set current room to start room
         nextRoom = null; // No next room at start
+        sleepInactiveRooms();
+        currentRoom.materialize(); // Other rooms get their content on first entry
     }
 
-    // Initializes all rooms and generates enemies for normal rooms
-    private void initializeRooms() {
-        clearLayoutDebugFile();
-        Random rng = new Random();
-        int targetRooms = 10 + rng.nextInt(5) + GameApp.currentLevel; // 10..14
+    // For subclasses that place rooms themselves (endless mode): no level is generated here,
+    // the subclass must call placeStartRoom before the map is used
+    protected GameMap(ProjectileManager projectileManager, int level, RoomStore rooms, long seed) {
+        this.projectileManager = projectileManager;
+        this.level = level;
+        this.settings = DungeonLayout.Settings.DEFAULT;
+        this.rooms = rooms;
+        this.seed = seed;
+    }
 
-        int startX;
-        int startY;
-        int randomStart = rng.nextInt(4);
-        switch (randomStart) {
-            case 0 -> {
-                startX = 3;
-                startY = 3;
-            }
-            case 1 -> {
-                startX = 4;
-                startY = 3;
-            }
-            case 2 -> {
-                startX = 3;
-                startY = 4;
-            }
-            default -> {
-                startX = 4;
-                startY = 4;
-            }
+    // Puts the player in the given room (added to the store if needed) and materializes it
+    protected void placeStartRoom(Room room) {
+        if (rooms.get(room.getX(), room.getY()) != room) {
+            rooms.put(room);
         }
+        startRoom = room;
+        currentRoom = room;
+        playerX = room.getX();
+        playerY = room.getY();
+        nextRoom = null;
+        room.materialize();
+    }
 
-        startRoom = new Room(RoomType.START, startX, startY);
-        grid[startX][startY] = startRoom;
+    // Puts the player back in a room of a map rebuilt from a save (GameSnapshot); the other rooms go dormant
+    void restorePlayerRoom(int x, int y) {
+        Room room = rooms.get(x, y);
+        if (room == null) {
+            throw new IllegalArgumentException("No room at " + x + "," + y);
+        }
+        startRoom = rooms.first(RoomType.START);
+        bossRoom = rooms.first(RoomType.BOSS);
+        currentRoom = room;
+        playerX = x;
+        playerY = y;
+        nextRoom = null;
+        sleepInactiveRooms();
+    }
 
-        int[][] distanceFromStart = new int[GRID_SIZE][GRID_SIZE];
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                distanceFromStart[i][j] = -1;
-            }
-        }
-        distanceFromStart[startX][startY] = 0;
-
-        ArrayDeque<int[]> queue = new ArrayDeque<>();
-        queue.add(new int[]{startX, startY});
-        List<int[]> endRooms = new ArrayList<>();
-        int roomsCount = 1;
-
-        while (!queue.isEmpty() && roomsCount < targetRooms) {
-            int[] current = queue.poll();
-            int cx = current[0];
-            int cy = current[1];
-            int currentDist = distanceFromStart[cx][cy];
-            boolean isStartRoom = (cx == startX && cy == startY);
-
-            List<int[]> neighbors = new ArrayList<>();
-            neighbors.add(new int[]{cx, cy - 1});
-            neighbors.add(new int[]{cx, cy + 1});
-            neighbors.add(new int[]{cx + 1, cy});
-            neighbors.add(new int[]{cx - 1, cy});
-            Collections.shuffle(neighbors, rng);
-
-            int createdFromCurrent = 0;
-
-            for (int[] n : neighbors) {
-                if (roomsCount >= targetRooms) break;
-
-                int nx = n[0];
-                int ny = n[1];
-
-                boolean forceFirstExpansion = isStartRoom && roomsCount == 1 && createdFromCurrent == 0;
-                if (!forceFirstExpansion && rng.nextDouble() < 0.5) continue;
-                if (!isInsideGrid(nx, ny)) continue;
-                if (grid[nx][ny] != null) continue;
-                if (countOccupiedNeighbors(nx, ny) >= 2) continue;
-
-                Room normalRoom = new Room(RoomType.NORMAL, nx, ny);
-                loadRandomLayoutInto(normalRoom, rng);
-                grid[nx][ny] = normalRoom;
-                distanceFromStart[nx][ny] = currentDist + 1;
-                queue.add(new int[]{nx, ny});
-
-                roomsCount++;
-                createdFromCurrent++;
+    // Packs every room except the current one into its compact dormant form
+    private void sleepInactiveRooms() {
+        List<Room> all = rooms.rooms();
+        forEachIndex(all.size(), all.size() >= PARALLEL_ROOM_THRESHOLD, i -> {
+            Room room = all.get(i);
+            if (room != currentRoom) {
+                room.makeDormant();
             }
+        });
+    }
 
-            if (createdFromCurrent == 0 && !(cx == startX && cy == startY)) {
-                endRooms.add(new int[]{cx, cy});
-            }
+    // Generates levels until one passes LevelValidator (or the attempt bound is reached)
+    private void generateValidLevel(long initialSeed) {
+        long attemptSeed = initialSeed;
+        for (int attempt = 1; ; attempt++) {
+            seed = attemptSeed;
+            initializeRooms(new Random(attemptSeed));
+            String failure = LevelValidator.validate(rooms, startRoom);
+            if (failure == null) {
+                LevelValidator.recordGeneration(attempt, true);
+                return;
+            }
+            if (attempt >= MAX_GENERATION_ATTEMPTS) {
+                System.err.println("Keeping unvalidated level after " + attempt + " attempts: " + failure);
+                LevelValidator.recordGeneration(attempt, false);
+                return;
+            }
+            attemptSeed = deriveSeed(attemptSeed);
+            clearGrid();
         }
+    }
 
-        if (roomsCount < MIN_ROOMS) {
-            boolean createdRoom = true;
-            while (roomsCount < MIN_ROOMS && createdRoom) {
-                createdRoom = false;
-
-                List<int[]> occupiedRooms = new ArrayList<>();
-                for (int i = 0; i < GRID_SIZE; i++) {
-                    for (int j = 0; j < GRID_SIZE; j++) {
-                        if (grid[i][j] != null) {
-                            occupiedRooms.add(new int[]{i, j});
-                        }
-                    }
-                }
-                Collections.shuffle(occupiedRooms, rng);
-
-                for (int[] current : occupiedRooms) {
-                    int cx = current[0];
-                    int cy = current[1];
-
-                    List<int[]> neighbors = new ArrayList<>();
-                    neighbors.add(new int[]{cx, cy - 1});
-                    neighbors.add(new int[]{cx, cy + 1});
-                    neighbors.add(new int[]{cx + 1, cy});
-                    neighbors.add(new int[]{cx - 1, cy});
-                    Collections.shuffle(neighbors, rng);
-
-                    for (int[] n : neighbors) {
-                        int nx = n[0];
-                        int ny = n[1];
-
-                        if (!isInsideGrid(nx, ny)) continue;
-                        if (grid[nx][ny] != null) continue;
-                        if (countOccupiedNeighbors(nx, ny) >= 3) continue;
-
-                        Room normalRoom = new Room(RoomType.NORMAL, nx, ny);
-                        loadRandomLayoutInto(normalRoom, rng);
-                        grid[nx][ny] = normalRoom;
-
-                        int parentDist = distanceFromStart[cx][cy];
-                        if (parentDist < 0) parentDist = 0;
-                        distanceFromStart[nx][ny] = parentDist + 1;
-
-                        roomsCount++;
-                        createdRoom = true;
-                        break;
-                    }
+    // Next seed of the retry chain (64-bit LCG step, so retries are reproducible from the first seed)
+    private static long deriveSeed(long seed) {
+        return seed * 6364136223846793005L + 1442695040888963407L;
+    }
 
-                    if (roomsCount >= MIN_ROOMS) break;
-                }
-            }
-        }
+    // Content seed of the room at (x, y): a SplitMix64 finalizer over the level seed and
+    // the packed coordinates, so rooms are independent of the order they are entered in
+    static long roomSeed(long levelSeed, int x, int y) {
+        long z = levelSeed + 0x9E3779B97F4A7C15L * (RoomStore.key(x, y) + 1L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
 
-        List<int[]> bossCandidates = new ArrayList<>();
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                if (grid[i][j] == null) continue;
-                if (i == startX && j == startY) continue;
-                if (countOccupiedNeighbors(i, j) == 1) {
-                    bossCandidates.add(new int[]{i, j});
+    // Builds one room: prefab walls (compatible with every neighbour), references and door mask
+    private Room populateRoom(int cell, long layoutSeed) {
+        int x = layout.cellX(cell);
+        int y = layout.cellY(cell);
+        Room room = new Room(layout.getRoomType(cell), x, y);
+        Random roomRng = new Random(roomSeed(layoutSeed, x, y));
+        int requiredDoors = requiredDoors(x, y);
+        switch (room.getType()) {
+            case NORMAL -> loadRandomLayoutInto(room, roomRng, requiredDoors);
+            case ITEM -> {
+                if (!loadFixedLayoutInto(room, PrefabLibrary.ITEM_ROOM_ID, requiredDoors)) {
+                    // Fallback: a random geometry if item_room.txt is unavailable or blocks a needed door.
+                    loadRandomLayoutInto(room, roomRng, requiredDoors);
                 }
             }
+            default -> { }
         }
-
-        if (bossCandidates.isEmpty()) {
-            bossCandidates.addAll(endRooms);
+        // Without any prefab, the border keeps the door tiles open so connectRooms can link the room
+        if ((room.getType() == RoomType.NORMAL || room.getType() == RoomType.ITEM) && room.getWalls().isEmpty()) {
+            room.restoreLayout(null, RoomLayouts.borderWithDoors(requiredDoors));
         }
+        // Content stays lazy, seeded per room
+        room.setReferences(this, projectileManager, roomSeed(seed, x, y));
+        room.getOpenDoorMask(); // Cached now, so the parallel door pass only reads it
+        return room;
+    }
 
-        if (bossCandidates.isEmpty()) {
-            for (int i = 0; i < GRID_SIZE; i++) {
-                for (int j = 0; j < GRID_SIZE; j++) {
-                    if (grid[i][j] != null && !(i == startX && j == startY)) {
-                        bossCandidates.add(new int[]{i, j});
-                    }
-                }
-            }
-        }
+    // Doors a room needs: one towards each neighbouring room of the layout
+    private int requiredDoors(int x, int y) {
+        int mask = 0;
+        if (layout.isOccupied(x, y - 1)) mask |= RoomPrefab.doorBit(Direction.NORTH);
+        if (layout.isOccupied(x, y + 1)) mask |= RoomPrefab.doorBit(Direction.SOUTH);
+        if (layout.isOccupied(x + 1, y)) mask |= RoomPrefab.doorBit(Direction.EAST);
+        if (layout.isOccupied(x - 1, y)) mask |= RoomPrefab.doorBit(Direction.WEST);
+        return mask;
+    }
 
-        int minBossDistance = Math.max(4, targetRooms / 3);
-        int[] bossPos = null;
-        int bestDistance = -1;
-
-        for (int[] pos : bossCandidates) {
-            int x = pos[0];
-            int y = pos[1];
-            int dist = distanceFromStart[x][y];
-            if (dist >= minBossDistance && dist > bestDistance) {
-                bestDistance = dist;
-                bossPos = pos;
-            }
-        }
+    private static void forEachIndex(int count, boolean parallel, IntConsumer action) {
+        IntStream indices = IntStream.range(0, count);
+        (parallel ? indices.parallel() : indices).forEach(action);
+    }
 
-        if (bossPos == null) {
-            for (int[] pos : bossCandidates) {
-                int x = pos[0];
-                int y = pos[1];
-                int dist = distanceFromStart[x][y];
-                if (dist > bestDistance) {
-                    bestDistance = dist;
-                    bossPos = pos;
-                }
-            }
-        }
+    private void clearGrid() {
+        rooms.clear();
+        startRoom = null;
+        bossRoom = null;
+    }
 
-        if (bossPos != null) {
-            int bx = bossPos[0];
-            int by = bossPos[1];
-            bossRoom = new Room(RoomType.BOSS, bx, by);
-            grid[bx][by] = bossRoom;
-            endRooms.removeIf(pos -> pos[0] == bx && pos[1] == by);
-        }
-        
-        int[] itemPos = null;
-        if (!endRooms.isEmpty()) {
-            itemPos = endRooms.get(rng.nextInt(endRooms.size()));
-        } else {
-            List<int[]> normalRooms = new ArrayList<>();
-            for (int i = 0; i < GRID_SIZE; i++) {
-                for (int j = 0; j < GRID_SIZE; j++) {
-                    if (grid[i][j] != null && grid[i][j].getType() == RoomType.NORMAL) {
-                        normalRooms.add(new int[]{i, j});
-                    }
-                }
-            }
-            if (!normalRooms.isEmpty()) {
-                itemPos = normalRooms.get(rng.nextInt(normalRooms.size()));
-            }
-        }
+    // Initializes all rooms (layout, references, doors); content is created on first entry
+    private void initializeRooms(Random rng) {
+        layout = DungeonLayout.generate(rng, level, settings);
+        int targetRooms = layout.getTargetRooms();
+        int roomsCount = layout.getRoomCount();
+        // Each room draws its prefab from its own RNG split off this seed, so the
+        // result does not depend on which thread populates which room
+        long layoutSeed = rng.nextLong() ^ LAYOUT_SALT;
+        boolean parallel = roomsCount >= PARALLEL_ROOM_THRESHOLD;
 
-        if (itemPos != null) {
-            int ix = itemPos[0];
-            int iy = itemPos[1];
-            Room previousRoom = grid[ix][iy];
-            Room itemRoom = new Room(RoomType.ITEM, ix, iy);
-            if (!loadFixedLayoutInto(itemRoom, Paths.get("saved_rooms", "item_room.txt")) && previousRoom != null) {
-                // Fallback: keep previous geometry if item_room.txt is unavailable.
-                itemRoom.copyLayoutFrom(previousRoom);
-            }
-            grid[ix][iy] = itemRoom;
-        }
-        
+        // Materialize the rooms only once the whole layout is known; rooms are
+        // independent here, so they are populated on the fork-join pool
+        int[] cells = layout.getRoomCells();
+        Room[] built = new Room[cells.length];
+        forEachIndex(cells.length, parallel, i -> built[i] = populateRoom(cells[i], layoutSeed));
 
-        // THEN set references only on non-null rooms
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                if (grid[i][j] != null) {
-                    grid[i][j].setReferences(this, projectileManager);
-                }
+        // The store is filled serially, in cell order
+        for (Room room : built) {
+            switch (room.getType()) {
+                case START -> startRoom = room;
+                case BOSS -> bossRoom = room;
+                default -> { }
             }
+            rooms.put(room);
         }
 
-        // Connect rooms (doors) after all rooms exist and have references
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                connectRooms(i, j);
-            }
-        }
+        // Connect rooms (doors) after all rooms exist; each room only writes its own doors
+        List<Room> all = rooms.rooms();
+        forEachIndex(all.size(), parallel, i -> connectRooms(all.get(i)));
 
         // Lock doors to ITEM room
         lockItemRoomDoorsAfterGeneration();
 
-        dumpLayoutToFile("after_connect", targetRooms, roomsCount);
+        traceLayout("after_connect", targetRooms, roomsCount);
     }
 
     // Locks all doors that lead to the ITEM room and unlocks them from the ITEM room's neighbors
     private void lockItemRoomDoorsAfterGeneration() {
-        Room itemRoom = null;
-        int itemRoomX = -1, itemRoomY = -1;
-
-        // Find the ITEM room
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                if (grid[i][j] != null && grid[i][j].getType() == RoomType.ITEM) {
-                    itemRoom = grid[i][j];
-                    itemRoomX = i;
-                    itemRoomY = j;
-                    break;
-                }
-            }
-            if (itemRoom != null) break;
-        }
-
+        Room itemRoom = rooms.first(RoomType.ITEM);
         if (itemRoom == null) return; // No item room found
+        int itemRoomX = itemRoom.getX();
+        int itemRoomY = itemRoom.getY();
 
         // Lock doors from neighbors to the ITEM room
         Room[] neighbors = new Room[4];
@@ -320,13 +247,11 @@ public class GameMap {
             int nx = neighborCoords[i][0];
             int ny = neighborCoords[i][1];
 
-            if (isInsideGrid(nx, ny)) {
-                neighbors[i] = grid[nx][ny];
-                if (neighbors[i] != null) {
-                    // Lock the correct side of the connection in both rooms
-                    neighbors[i].lockDoor(neighborDirs[i]);
-                    itemRoom.lockDoor(itemRoomDirs[i]);
-                }
+            neighbors[i] = rooms.get(nx, ny);
+            if (neighbors[i] != null) {
+                // Lock the correct side of the connection in both rooms
+                neighbors[i].lockDoor(neighborDirs[i]);
+                itemRoom.lockDoor(itemRoomDirs[i]);
             }
         }
     }
@@ -342,17 +267,28 @@ public class GameMap {
         };
     }
 
-    // DEBUG : map in file
-    private void dumpLayoutToFile(String phase, int targetRooms, int roomsCount) {
+    // DEBUG : map sent to the configured layout trace sink (off by default)
+    private void traceLayout(String phase, int targetRooms, int roomsCount) {
+        LayoutTraceSink sink = LayoutTraceSink.getDefault();
+        if (!sink.isEnabled()) return;
+
         StringBuilder sb = new StringBuilder();
-        sb.append("phase=").append(phase).append("\n");
+        sb.append("level=").append(level).append(", phase=").append(phase).append("\n");
         sb.append("targetRooms=").append(targetRooms)
           .append(", actualRooms=").append(roomsCount)
           .append("\n");
 
-        for (int y = 0; y < GRID_SIZE; y++) {
-            for (int x = 0; x < GRID_SIZE; x++) {
-                Room room = grid[x][y];
+        // Only the bounding box of the rooms is printed (grids can be very large)
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = -1, maxY = -1;
+        for (Room room : rooms.rooms()) {
+            minX = Math.min(minX, room.getX());
+            minY = Math.min(minY, room.getY());
+            maxX = Math.max(maxX, room.getX());
+            maxY = Math.max(maxY, room.getY());
+        }
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                Room room = rooms.get(x, y);
                 char marker = '.';
                 if (room != null) {
                     if (room.getType() == RoomType.START) {
@@ -371,150 +307,38 @@ public class GameMap {
         }
         sb.append("---\n");
 
-        try {
-            Path outDir = Paths.get("saved_rooms");
-            Files.createDirectories(outDir);
-            Path outFile = outDir.resolve("layout_debug.txt");
-            Files.writeString(
-                    outFile,
-                    sb.toString(),
-                    java.nio.file.StandardOpenOption.CREATE,
-                    java.nio.file.StandardOpenOption.APPEND
-            );
-        } catch (IOException ex) {
-            System.err.println("Could not write layout_debug.txt: " + ex.getMessage());
-        }
+        sink.record(sb.toString());
     }
 
-    private void clearLayoutDebugFile() {
-        try {
-            Path outDir = Paths.get("saved_rooms");
-            Files.createDirectories(outDir);
-            Path outFile = outDir.resolve("layout_debug.txt");
-            Files.deleteIfExists(outFile);
-        } catch (IOException ex) {
-            System.err.println("Could not clear layout_debug.txt: " + ex.getMessage());
-        }
+    // Picks a random prefab from the in-memory library (no filesystem access), among those
+    // whose door tiles are open towards every required neighbour. With none, the walls stay
+    // empty and populateRoom gives the room a border open at its doors.
+    private void loadRandomLayoutInto(Room room, Random rng, int requiredDoors) {
+        if (prefabs.countCompatible(requiredDoors) == 0) return;
+        room.applyPrefab(prefabs.pickRandom(rng, requiredDoors));
     }
 
-    private boolean isInsideGrid(int x, int y) {
-        return x >= 0 && x < GRID_SIZE && y >= 0 && y < GRID_SIZE;
-    }
-
-    private int countOccupiedNeighbors(int x, int y) {
-        int count = 0;
-
-        if (isInsideGrid(x, y - 1) && grid[x][y - 1] != null) count++;
-        if (isInsideGrid(x, y + 1) && grid[x][y + 1] != null) count++;
-        if (isInsideGrid(x + 1, y) && grid[x + 1][y] != null) count++;
-        if (isInsideGrid(x - 1, y) && grid[x - 1][y] != null) count++;
-
-        return count;
-    }
-
-    private void loadRandomLayoutInto(Room room, Random rng) {
-        try {
-            Path dir = Paths.get("saved_rooms");
-            if (Files.exists(dir) && Files.isDirectory(dir)) {
-                List<Path> files = Files.list(dir)
-                        .filter(Files::isRegularFile)
-                        .filter(p -> p.toString().toLowerCase().endsWith(".txt"))
-                    .filter(p -> !p.getFileName().toString().equalsIgnoreCase("item_room.txt"))
-                        .collect(Collectors.toList());
-                if (!files.isEmpty()) {
-                    Path chosen = files.get(rng.nextInt(files.size()));
-                    try {
-                        Room loaded = MapIO.loadRoom(chosen);
-                        room.copyLayoutFrom(loaded);
-                    } catch (IOException ex) {
-                        System.err.println("Failed to load prefab " + chosen + " : " + ex.getMessage());
-                    }
-                }
-            }
-        } catch (IOException ex) {
-            System.err.println("Could not list saved_rooms: " + ex.getMessage());
-        }
-    }
-
-    private boolean loadFixedLayoutInto(Room room, Path layoutPath) {
-        if (room == null || layoutPath == null) return false;
-        if (!Files.exists(layoutPath) || !Files.isRegularFile(layoutPath)) {
-            System.err.println("Missing fixed layout file: " + layoutPath);
-            return false;
-        }
-        try {
-            Room loaded = MapIO.loadRoom(layoutPath);
-            room.copyLayoutFrom(loaded);
-            return true;
-        } catch (IOException ex) {
-            System.err.println("Failed to load fixed layout " + layoutPath + " : " + ex.getMessage());
+    private boolean loadFixedLayoutInto(Room room, String prefabId, int requiredDoors) {
+        if (room == null || prefabId == null) return false;
+        RoomPrefab prefab = prefabs.get(prefabId);
+        if (prefab == null) {
+            System.err.println("Missing fixed layout prefab: " + prefabId);
             return false;
         }
+        if ((prefab.getOpenDoorMask() & requiredDoors) != requiredDoors) return false;
+        room.applyPrefab(prefab);
+        return true;
     }
 
-    private void connectRooms(int i, int j) {
-        Room room = grid[i][j];
-        if (room == null) return;
-
-        // helper - returns true if the tile (tx,ty) in room r is blocked by a wall
-        java.util.function.BiPredicate<Room, int[]> isBlocked = (r, coords) -> {
-            if (r == null) return true; // no room => treat as blocked
-            int tx = coords[0], ty = coords[1];
-            for (Wall w : r.getWalls()) {
-                if (w.blocksPosition(tx, ty)) return true;
-            }
-            return false;
-        };
-
-        // NORTH neighbor (same i, j-1)
-        if (j > 0) {
-            Room neigh = grid[i][j - 1];
-            if (neigh != null) {
-                int[] doorTileRoom = new int[]{DOOR_POSITION, 0};
-                int[] doorTileNeigh = new int[]{DOOR_POSITION, ROOM_SIZE - 1};
-                if (!isBlocked.test(room, doorTileRoom) && !isBlocked.test(neigh, doorTileNeigh)) {
-                    if (!room.hasDoor(Direction.NORTH)) room.addDoor(Direction.NORTH);
-                    if (!neigh.hasDoor(Direction.SOUTH)) neigh.addDoor(Direction.SOUTH);
-                }
-            }
-        }
-
-        // SOUTH neighbor (same i, j+1)
-        if (j < GRID_SIZE - 1) {
-            Room neigh = grid[i][j + 1];
-            if (neigh != null) {
-                int[] doorTileRoom = new int[]{DOOR_POSITION, ROOM_SIZE - 1};
-                int[] doorTileNeigh = new int[]{DOOR_POSITION, 0};
-                if (!isBlocked.test(room, doorTileRoom) && !isBlocked.test(neigh, doorTileNeigh)) {
-                    if (!room.hasDoor(Direction.SOUTH)) room.addDoor(Direction.SOUTH);
-                    if (!neigh.hasDoor(Direction.NORTH)) neigh.addDoor(Direction.NORTH);
-                }
-            }
-        }
-
-        // EAST neighbor (i+1, same j)
-        if (i < GRID_SIZE - 1) {
-            Room neigh = grid[i + 1][j];
-            if (neigh != null) {
-                int[] doorTileRoom = new int[]{ROOM_SIZE - 1, DOOR_POSITION};
-                int[] doorTileNeigh = new int[]{0, DOOR_POSITION};
-                if (!isBlocked.test(room, doorTileRoom) && !isBlocked.test(neigh, doorTileNeigh)) {
-                    if (!room.hasDoor(Direction.EAST)) room.addDoor(Direction.EAST);
-                    if (!neigh.hasDoor(Direction.WEST)) neigh.addDoor(Direction.WEST);
-                }
-            }
-        }
-
-        // WEST neighbor (i-1, same j)
-        if (i > 0) {
-            Room neigh = grid[i - 1][j];
-            if (neigh != null) {
-                int[] doorTileRoom = new int[]{0, DOOR_POSITION};
-                int[] doorTileNeigh = new int[]{ROOM_SIZE - 1, DOOR_POSITION};
-                if (!isBlocked.test(room, doorTileRoom) && !isBlocked.test(neigh, doorTileNeigh)) {
-                    if (!room.hasDoor(Direction.WEST)) room.addDoor(Direction.WEST);
-                    if (!neigh.hasDoor(Direction.EAST)) neigh.addDoor(Direction.EAST);
-                }
+    // Opens this room's doors towards its neighbours when both door tiles are free
+    // (read from the cached door masks, no wall scan). Only this room's own door set
+    // is written: the neighbour runs the same symmetric check, so both sides agree
+    // and rooms can be connected in parallel.
+    private void connectRooms(Room room) {
+        for (Direction dir : CARDINALS) {
+            Room neighbour = getAdjacentRoom(room, dir);
+            if (neighbour != null && room.isDoorTileOpen(dir) && neighbour.isDoorTileOpen(getOppositeDirection(dir))) {
+                room.addDoor(dir);
             }
         }
     }
@@ -535,6 +359,7 @@ public class GameMap {
                 case NORTH_EAST, NORTH_WEST, SOUTH_EAST, SOUTH_WEST ->
                     throw new IllegalArgumentException("Diagonal room movement is not supported");
             }
+            currentRoom = rooms.get(playerX, playerY);
         } else {
             throw new IllegalArgumentException("Cannot move in that direction");
         }
@@ -542,8 +367,6 @@ public class GameMap {
 
     // Checks if the player is near a door and returns the direction, or null if not near any door
     public Direction isPlayerNearDoor(double playerPixelX, double playerPixelY) {
-        currentRoom = getCurrentRoom();
-
         // Check each direction that has a door
         for (Direction dir : currentRoom.getDirections()) {
             switch (dir) {
@@ -597,11 +420,7 @@ public class GameMap {
         }
         
         // Check if the new coordinates are valid
-        if (newX >= 0 && newX < GRID_SIZE && newY >= 0 && newY < GRID_SIZE) {
-            nextRoom = grid[newX][newY];
-        } else {
-            nextRoom = null; // No valid room
-        }
+        nextRoom = rooms.get(newX, newY); // null outside the grid or on an empty cell
     }
 
     // Resets the next room (used after switching rooms)
@@ -672,17 +491,27 @@ public class GameMap {
     public boolean isWalkable(int targetX, int targetY) {
         Room room = getCurrentRoom();
         if (room == null) return false;
-        for (Wall wall : room.getWalls()) {
-            if (wall.blocksPosition(targetX, targetY)) {
-                return false;
-            }
-        }
-        return true;  
+        return !room.isTileBlocked(targetX, targetY);
+    }
+
+    // Returns the seed of the generation attempt that produced this map
+    public long getSeed() {
+        return seed;
+    }
+
+    // Returns the room placement this map was generated from
+    public DungeonLayout getLayout() {
+        return layout;
+    }
+
+    // Returns the sparse room store (rooms by coordinates and by type)
+    public RoomStore getRooms() {
+        return rooms;
     }
 
-    // Returns the current room object
+    // Returns the current room object (kept in step with playerX/playerY; called per BFS tile)
     public Room getCurrentRoom(){
-        return grid[playerX][playerY];
+        return currentRoom;
     }
 
     // Returns the next room object (if set)
@@ -741,10 +570,10 @@ public class GameMap {
         int y = room.getY();
 
         return switch (dir) {
-            case NORTH -> isInsideGrid(x, y - 1) ? grid[x][y - 1] : null;
-            case SOUTH -> isInsideGrid(x, y + 1) ? grid[x][y + 1] : null;
-            case EAST -> isInsideGrid(x + 1, y) ? grid[x + 1][y] : null;
-            case WEST -> isInsideGrid(x - 1, y) ? grid[x - 1][y] : null;
+            case NORTH -> rooms.get(x, y - 1);
+            case SOUTH -> rooms.get(x, y + 1);
+            case EAST -> rooms.get(x + 1, y);
+            case WEST -> rooms.get(x - 1, y);
             default -> null;
         };
     }
@@ -169,11 +169,14 @@ public class GameMapEditorApp extends Application {
         
         if (!wallExists) {
             currentRoom.getWalls().add(new Wall(gridX, gridY, 1, 1));
+            currentRoom.invalidateLayout();
         }
     }
     
     private void removeWall(int gridX, int gridY) {
-        currentRoom.getWalls().removeIf(wall -> wall.blocksPosition(gridX, gridY));
+        if (currentRoom.getWalls().removeIf(wall -> wall.blocksPosition(gridX, gridY))) {
+            currentRoom.invalidateLayout();
+        }
     }
     
     private void renderRoom() {
@@ -221,6 +224,10 @@ public class GameMapEditorApp extends Application {
             Path out = Paths.get("saved_rooms", name + ".txt");
             MapIO.saveRoom(currentRoom, out);
             System.out.println("Room saved to " + out.toAbsolutePath());
+            // A running PrefabWatcher publishes the file itself; otherwise only this file is re-parsed
+            if (!PrefabWatcher.isWatching()) {
+                PrefabLibrary.reloadFile(out);
+            }
         } catch (IOException e) {
             System.err.println("Failed to save room: " + e.getMessage());
         }
@@ -0,0 +1,425 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Versioned binary snapshot of a whole run: level, collected items, player, every room
+ * of the map (layout, doors, locks, completion, content seed, surviving enemies, reward,
+ * trap), the boss timeline of the current room and the live projectiles.
+ * capture() copies the state on the FX thread; the immutable result can then be written
+ * from any thread (see AutosaveService), streamed through one buffer straight to a
+ * temporary file that replaces the save atomically. Dormant rooms are never modified in
+ * place (leaving a room packs it anew), so the snapshot shares their packed arrays
+ * instead of copying them; only the current room is packed during capture.
+ *
+ * Room content is not stored as objects but as its per-room seed plus what changed:
+ * a room that was never entered is rebuilt from the level seed exactly as generated.
+ * Runtime randomness that has no seed (reward rolls, wanderer steering) is not saved.
+ */
+public final class GameSnapshot {
+    private static final int MAGIC = 0x48534156; // "HSAV"
+    private static final short VERSION = 1;
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final Direction[] CARDINALS = {Direction.NORTH, Direction.SOUTH, Direction.EAST, Direction.WEST};
+    private static final byte NO_TRAP = 0;
+    private static final byte TRAP_HIDDEN = 1;
+    private static final byte TRAP_VISIBLE = 2;
+
+    private record PlayerState(double x, double y, int health, int maxHealth, int damage, int atkSpeed,
+                               double tearsSize, int keyCount, boolean alive) {
+    }
+
+    // Walls are the packed array of RoomLayouts (shared with the room, never modified)
+    private record RoomState(int x, int y, RoomType type, String layoutId, int[] walls, int doorMask,
+                             int lockedMask, boolean doorsClosed, boolean completed, long contentSeed,
+                             boolean materialized, boolean itemCollected, DormantEnemies enemies,
+                             RewardType reward, byte trap) {
+    }
+
+    private record BossState(int phaseIndex, int phaseTick, int cursor) {
+    }
+
+    private record ProjectileState(double x, double y, int damage, double speed, double size,
+                                   Direction direction, ProjectileOwner owner, ProjectileTarget target) {
+    }
+
+    private final int level;
+    private final int[] itemIds;
+    private final PlayerState player;
+    private final long mapSeed;
+    private final int gridSize;
+    private final int currentX;
+    private final int currentY;
+    private final List<RoomState> rooms;
+    private final List<BossState> bosses;
+    private final List<ProjectileState> projectiles;
+
+    private GameSnapshot(int level, int[] itemIds, PlayerState player, long mapSeed, int gridSize,
+                         int currentX, int currentY, List<RoomState> rooms, List<BossState> bosses,
+                         List<ProjectileState> projectiles) {
+        this.level = level;
+        this.itemIds = itemIds;
+        this.player = player;
+        this.mapSeed = mapSeed;
+        this.gridSize = gridSize;
+        this.currentX = currentX;
+        this.currentY = currentY;
+        this.rooms = rooms;
+        this.bosses = bosses;
+        this.projectiles = projectiles;
+    }
+
+    // CAPTURE (FX thread)
+
+    // Copies the state of a run; endless maps are streamed from their seed and are not saved
+    public static GameSnapshot capture(int level, List<ItemDefinition> collectedItems, Player player,
+                                       GameMap gameMap, ProjectileManager projectileManager) {
+        if (gameMap instanceof EndlessGameMap) {
+            throw new IllegalStateException("Endless runs cannot be saved");
+        }
+
+        int[] itemIds = new int[collectedItems.size()];
+        for (int i = 0; i < itemIds.length; i++) {
+            itemIds[i] = collectedItems.get(i).getId();
+        }
+
+        PlayerState playerState = new PlayerState(player.getX(), player.getY(), player.getHealth(),
+                player.getMaxHealth(), player.getDamage(), player.getATKSpeed(), player.getTearsSize(),
+                player.getKeyCount(), player.isAlive());
+
+        List<Room> all = gameMap.getRooms().rooms();
+        List<RoomState> roomStates = new ArrayList<>(all.size());
+        for (Room room : all) {
+            roomStates.add(captureRoom(room));
+        }
+
+        Room current = gameMap.getCurrentRoom();
+        List<BossState> bossStates = new ArrayList<>();
+        for (Enemy enemy : current.getEnemies()) {
+            if (enemy instanceof BossEnemy boss && boss.isAlive()) {
+                bossStates.add(new BossState(boss.getPhaseIndex(), boss.getPhaseTick(), boss.getCursor()));
+            }
+        }
+
+        List<Projectile> live = projectileManager.getProjectilesView();
+        List<ProjectileState> projectileStates = new ArrayList<>(live.size());
+        for (Projectile p : live) {
+            if (p.isMarkedForRemoval()) continue;
+            projectileStates.add(new ProjectileState(p.getX(), p.getY(), p.getDamage(), p.getSpeed(),
+                    p.getSize(), p.getDirection(), p.getOwner(), p.getTarget()));
+        }
+
+        return new GameSnapshot(level, itemIds, playerState, gameMap.getSeed(), gameMap.getRooms().getGridSize(),
+                current.getX(), current.getY(), roomStates, bossStates, projectileStates);
+    }
+
+    // Reads a room without waking it (dormant rooms hand over their packed walls and enemies)
+    private static RoomState captureRoom(Room room) {
+        int doorMask = 0;
+        int lockedMask = 0;
+        for (Direction dir : CARDINALS) {
+            if (room.hasDoor(dir)) doorMask |= RoomPrefab.doorBit(dir);
+            if (room.isDoorDirectionLocked(dir)) lockedMask |= RoomPrefab.doorBit(dir);
+        }
+        ItemInstance item = room.getItemInstance();
+        Reward reward = room.getRewards();
+        Trap trap = room.getTrap();
+        byte trapState = trap == null ? NO_TRAP : trap.isVisible() ? TRAP_VISIBLE : TRAP_HIDDEN;
+        return new RoomState(room.getX(), room.getY(), room.getType(), room.getLayoutId(), room.packedWalls(),
+                doorMask, lockedMask, room.areDoorsClosed(), room.isCompleted(), room.getContentSeed(),
+                room.isMaterialized(), item != null && item.isCollected(),
+                room.isMaterialized() ? room.snapshotEnemies() : null,
+                reward != null ? reward.getType() : null, trapState);
+    }
+
+    // WRITE (any thread)
+
+    // Streams the snapshot to a temporary file next to the save, syncs it, then moves it over
+    // the save: a crash at any point leaves either the old or the new save, never a torn one
+    public void write(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                DataOutputStream out = new DataOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_BYTES));
+                writeTo(out);
+                out.flush();
+                channel.force(true); // On disk before it replaces the previous save
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException ex) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+
+        out.writeInt(level);
+        out.writeShort(itemIds.length);
+        for (int id : itemIds) {
+            out.writeInt(id);
+        }
+
+        out.writeDouble(player.x());
+        out.writeDouble(player.y());
+        out.writeInt(player.health());
+        out.writeInt(player.maxHealth());
+        out.writeInt(player.damage());
+        out.writeInt(player.atkSpeed());
+        out.writeDouble(player.tearsSize());
+        out.writeInt(player.keyCount());
+        out.writeBoolean(player.alive());
+
+        out.writeLong(mapSeed);
+        out.writeInt(gridSize);
+        out.writeInt(currentX);
+        out.writeInt(currentY);
+        out.writeInt(rooms.size());
+        for (RoomState room : rooms) {
+            writeRoom(out, room);
+        }
+
+        out.writeShort(bosses.size());
+        for (BossState boss : bosses) {
+            out.writeInt(boss.phaseIndex());
+            out.writeInt(boss.phaseTick());
+            out.writeInt(boss.cursor());
+        }
+
+        out.writeInt(projectiles.size());
+        for (ProjectileState p : projectiles) {
+            out.writeDouble(p.x());
+            out.writeDouble(p.y());
+            out.writeInt(p.damage());
+            out.writeDouble(p.speed());
+            out.writeDouble(p.size());
+            out.writeByte(p.direction().ordinal());
+            out.writeByte(p.owner().ordinal());
+            out.writeByte(p.target().ordinal());
+        }
+    }
+
+    private static void writeRoom(DataOutputStream out, RoomState room) throws IOException {
+        out.writeInt(room.x());
+        out.writeInt(room.y());
+        out.writeByte(room.type().ordinal());
+        out.writeUTF(room.layoutId() != null ? room.layoutId() : "");
+        out.writeShort(room.walls().length / 4);
+        for (int value : room.walls()) {
+            out.writeByte(value);
+        }
+        out.writeByte(room.doorMask());
+        out.writeByte(room.lockedMask());
+        out.writeBoolean(room.doorsClosed());
+        out.writeBoolean(room.completed());
+        out.writeLong(room.contentSeed());
+        out.writeBoolean(room.materialized());
+        if (room.materialized()) {
+            out.writeBoolean(room.itemCollected());
+            room.enemies().write(out);
+        }
+        out.writeByte(room.reward() != null ? room.reward().ordinal() : -1);
+        out.writeByte(room.trap());
+    }
+
+    // READ
+
+    // Reads a save file; a foreign, truncated or newer file is rejected with an IOException
+    public static GameSnapshot read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file), BUFFER_BYTES))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("not a save file: " + file);
+            }
+            short version = in.readShort();
+            if (version != VERSION) {
+                throw new IOException("unsupported save version " + version);
+            }
+
+            int level = in.readInt();
+            int[] itemIds = new int[in.readUnsignedShort()];
+            for (int i = 0; i < itemIds.length; i++) {
+                itemIds[i] = in.readInt();
+            }
+
+            PlayerState player = new PlayerState(in.readDouble(), in.readDouble(), in.readInt(), in.readInt(),
+                    in.readInt(), in.readInt(), in.readDouble(), in.readInt(), in.readBoolean());
+
+            long mapSeed = in.readLong();
+            int gridSize = in.readInt();
+            int currentX = in.readInt();
+            int currentY = in.readInt();
+            int roomCount = in.readInt();
+            if (roomCount <= 0 || gridSize <= 0 || roomCount > gridSize * gridSize) {
+                throw new IOException("bad room count " + roomCount + " for grid " + gridSize);
+            }
+            List<RoomState> rooms = new ArrayList<>(roomCount);
+            for (int i = 0; i < roomCount; i++) {
+                rooms.add(readRoom(in));
+            }
+
+            int bossCount = in.readUnsignedShort();
+            List<BossState> bosses = new ArrayList<>(bossCount);
+            for (int i = 0; i < bossCount; i++) {
+                bosses.add(new BossState(in.readInt(), in.readInt(), in.readInt()));
+            }
+
+            int projectileCount = in.readInt();
+            if (projectileCount < 0) {
+                throw new IOException("bad projectile count " + projectileCount);
+            }
+            List<ProjectileState> projectiles = new ArrayList<>(Math.min(projectileCount, 4096));
+            Direction[] directions = Direction.values();
+            ProjectileOwner[] owners = ProjectileOwner.values();
+            ProjectileTarget[] targets = ProjectileTarget.values();
+            for (int i = 0; i < projectileCount; i++) {
+                projectiles.add(new ProjectileState(in.readDouble(), in.readDouble(), in.readInt(),
+                        in.readDouble(), in.readDouble(), enumAt(directions, in.readByte()),
+                        enumAt(owners, in.readByte()), enumAt(targets, in.readByte())));
+            }
+
+            return new GameSnapshot(level, itemIds, player, mapSeed, gridSize, currentX, currentY,
+                    rooms, bosses, projectiles);
+        } catch (EOFException ex) {
+            throw new IOException("truncated save file: " + file, ex);
+        }
+    }
+
+    private static RoomState readRoom(DataInputStream in) throws IOException {
+        int x = in.readInt();
+        int y = in.readInt();
+        RoomType type = enumAt(RoomType.values(), in.readByte());
+        String layoutId = in.readUTF();
+        int[] walls = new int[in.readUnsignedShort() * 4];
+        for (int i = 0; i < walls.length; i++) {
+            walls[i] = in.readByte();
+        }
+        int doorMask = in.readByte();
+        int lockedMask = in.readByte();
+        boolean doorsClosed = in.readBoolean();
+        boolean completed = in.readBoolean();
+        long contentSeed = in.readLong();
+        boolean materialized = in.readBoolean();
+        boolean itemCollected = false;
+        DormantEnemies enemies = null;
+        if (materialized) {
+            itemCollected = in.readBoolean();
+            enemies = DormantEnemies.read(in);
+        }
+        int rewardOrdinal = in.readByte();
+        RewardType reward = rewardOrdinal < 0 ? null : enumAt(RewardType.values(), rewardOrdinal);
+        byte trap = in.readByte();
+        return new RoomState(x, y, type, layoutId.isEmpty() ? null : layoutId, walls, doorMask, lockedMask,
+                doorsClosed, completed, contentSeed, materialized, itemCollected, enemies, reward, trap);
+    }
+
+    private static <E> E enumAt(E[] values, int ordinal) throws IOException {
+        if (ordinal < 0 || ordinal >= values.length) {
+            throw new IOException("bad enum ordinal " + ordinal);
+        }
+        return values[ordinal];
+    }
+
+    // RESTORE (FX thread)
+
+    public int getLevel() {
+        return level;
+    }
+
+    // Collected items in pickup order
+    public List<ItemDefinition> restoreItems() throws IOException {
+        List<ItemDefinition> items = new ArrayList<>(itemIds.length);
+        for (int id : itemIds) {
+            ItemDefinition item = ItemCatalog.byId(id);
+            if (item == null) {
+                throw new IOException("unknown item id " + id);
+            }
+            items.add(item);
+        }
+        return items;
+    }
+
+    public void restorePlayer(Player target) {
+        target.restoreState(player.x(), player.y(), player.health(), player.maxHealth(), player.damage(),
+                player.atkSpeed(), player.tearsSize(), player.keyCount(), player.alive());
+    }
+
+    // Rebuilds the map: every room from its saved layout and state, the current room awake
+    public GameMap restoreMap(ProjectileManager projectileManager) {
+        GameMap map = new GameMap(projectileManager, level, new RoomStore(gridSize), mapSeed);
+        for (RoomState state : rooms) {
+            map.getRooms().put(restoreRoom(state, map, projectileManager));
+        }
+        map.restorePlayerRoom(currentX, currentY);
+
+        int boss = 0;
+        for (Enemy enemy : map.getCurrentRoom().getEnemies()) {
+            if (enemy instanceof BossEnemy bossEnemy && boss < bosses.size()) {
+                BossState state = bosses.get(boss++);
+                bossEnemy.restoreTimeline(state.phaseIndex(), state.phaseTick(), state.cursor());
+            }
+        }
+        return map;
+    }
+
+    private static Room restoreRoom(RoomState state, GameMap map, ProjectileManager projectileManager) {
+        Room room = new Room(state.type(), state.x(), state.y());
+        room.restoreLayout(state.layoutId(), state.walls());
+        room.setReferences(map, projectileManager, state.contentSeed());
+        for (Direction dir : CARDINALS) {
+            if ((state.doorMask() & RoomPrefab.doorBit(dir)) != 0) room.addDoor(dir);
+            if ((state.lockedMask() & RoomPrefab.doorBit(dir)) != 0) room.lockDoor(dir);
+        }
+        if (state.materialized()) {
+            room.restoreVisited(state.enemies(), state.completed(), state.itemCollected());
+        } else {
+            room.setCompleted(state.completed());
+        }
+        room.setDoorsClosed(state.doorsClosed());
+        if (state.reward() != null) {
+            Reward reward = new Reward(state.reward());
+            reward.setPosition();
+            room.setRewards(reward);
+        }
+        if (state.trap() != NO_TRAP) {
+            Trap trap = new Trap();
+            trap.setPosition();
+            if (state.trap() == TRAP_VISIBLE) trap.activate();
+            room.setTrap(trap);
+        }
+        return room;
+    }
+
+    // Replaces the live projectiles with the saved ones
+    public void restoreProjectiles(ProjectileManager projectileManager) {
+        projectileManager.clearProjectiles();
+        for (ProjectileState p : projectiles) {
+            projectileManager.addProjectile(new Projectile(p.x(), p.y(), p.damage(), p.speed(), p.size(),
+                    p.direction(), p.owner(), p.target()));
+        }
+    }
+
+    // STATS
+
+    public int getRoomCount() { return rooms.size(); }
+    public int getProjectileCount() { return projectiles.size(); }
+}
@@ -0,0 +1,176 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Square occupancy bitboard of any size, stored as a long[] (bit index = y * size + x).
+ * Whole-board operations (shifts, and/or/andNot, popcount) work a word at a time,
+ * so neighbour queries over large dungeon grids stay cheap.
+ */
+public final class GridBitboard {
+    // First/last column masks per board size, built once and only ever read
+    private static final Map<Integer, GridBitboard[]> EDGE_COLUMNS = new ConcurrentHashMap<>();
+
+    private final int size;
+    private final int cells;
+    private final long[] words;
+
+    public GridBitboard(int size) {
+        this.size = size;
+        this.cells = size * size;
+        this.words = new long[(cells + 63) >>> 6];
+    }
+
+    private GridBitboard(GridBitboard other) {
+        this.size = other.size;
+        this.cells = other.cells;
+        this.words = other.words.clone();
+    }
+
+    public int size() { return size; }
+    public int cells() { return cells; }
+
+    public GridBitboard copy() {
+        return new GridBitboard(this);
+    }
+
+    public boolean get(int cell) {
+        return (words[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    public void set(int cell) {
+        words[cell >>> 6] |= 1L << cell;
+    }
+
+    public void clear(int cell) {
+        words[cell >>> 6] &= ~(1L << cell);
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) return false;
+        }
+        return true;
+    }
+
+    public int bitCount() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    // First set cell at or after from, or -1
+    public int nextSetBit(int from) {
+        if (from >= cells) return -1;
+        int w = from >>> 6;
+        long word = words[w] & (-1L << from);
+        while (true) {
+            if (word != 0) return (w << 6) + Long.numberOfTrailingZeros(word);
+            if (++w == words.length) return -1;
+            word = words[w];
+        }
+    }
+
+    // n-th set cell (0-based), or -1
+    public int nthSetBit(int n) {
+        for (int cell = nextSetBit(0); cell >= 0; cell = nextSetBit(cell + 1)) {
+            if (n-- == 0) return cell;
+        }
+        return -1;
+    }
+
+    public GridBitboard and(GridBitboard other) {
+        for (int i = 0; i < words.length; i++) words[i] &= other.words[i];
+        return this;
+    }
+
+    public GridBitboard or(GridBitboard other) {
+        for (int i = 0; i < words.length; i++) words[i] |= other.words[i];
+        return this;
+    }
+
+    public GridBitboard andNot(GridBitboard other) {
+        for (int i = 0; i < words.length; i++) words[i] &= ~other.words[i];
+        return this;
+    }
+
+    // New board where cell c holds this board's cell c + n (bits move towards index 0)
+    public GridBitboard shiftDown(int n) {
+        GridBitboard result = new GridBitboard(size);
+        int wordShift = n >>> 6;
+        int bitShift = n & 63;
+        for (int i = 0; i + wordShift < words.length; i++) {
+            long low = words[i + wordShift] >>> bitShift;
+            long high = (bitShift != 0 && i + wordShift + 1 < words.length)
+                    ? words[i + wordShift + 1] << (64 - bitShift) : 0;
+            result.words[i] = low | high;
+        }
+        return result;
+    }
+
+    // New board where cell c holds this board's cell c - n (bits move towards the end)
+    public GridBitboard shiftUp(int n) {
+        GridBitboard result = new GridBitboard(size);
+        int wordShift = n >>> 6;
+        int bitShift = n & 63;
+        for (int i = words.length - 1; i >= wordShift; i--) {
+            long high = words[i - wordShift] << bitShift;
+            long low = (bitShift != 0 && i - wordShift - 1 >= 0)
+                    ? words[i - wordShift - 1] >>> (64 - bitShift) : 0;
+            result.words[i] = high | low;
+        }
+        result.trim();
+        return result;
+    }
+
+    // Cells that have exactly one occupied 4-neighbour on this board, computed word by word
+    public GridBitboard exactlyOneNeighbour() {
+        GridBitboard[] edges = EDGE_COLUMNS.computeIfAbsent(size,
+                s -> new GridBitboard[]{column(s, 0), column(s, s - 1)});
+        GridBitboard south = shiftDown(size);                  // Cell below occupied
+        GridBitboard north = shiftUp(size);                    // Cell above occupied
+        GridBitboard west = shiftUp(1).andNot(edges[0]);       // Cell to the left occupied
+        GridBitboard east = shiftDown(1).andNot(edges[1]);     // Cell to the right occupied
+
+        GridBitboard result = new GridBitboard(size);
+        for (int i = 0; i < words.length; i++) {
+            long a = south.words[i];
+            long b = north.words[i];
+            long c = west.words[i];
+            long d = east.words[i];
+            long any = a | b | c | d;
+            long atLeastTwo = (a & b) | (a & c) | (a & d) | (b & c) | (b & d) | (c & d);
+            result.words[i] = any & ~atLeastTwo;
+        }
+        return result;
+    }
+
+    // Board with every cell of column x set
+    public static GridBitboard column(int size, int x) {
+        GridBitboard mask = new GridBitboard(size);
+        for (int y = 0; y < size; y++) {
+            mask.set(y * size + x);
+        }
+        return mask;
+    }
+
+    // Clears the padding bits past the last cell
+    private void trim() {
+        int extra = (words.length << 6) - cells;
+        if (extra > 0) {
+            words[words.length - 1] &= -1L >>> extra;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof GridBitboard other && size == other.size && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * size + Arrays.hashCode(words);
+    }
+}
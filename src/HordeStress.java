@@ -0,0 +1,259 @@
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import javax.management.ListenerNotFoundException;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+/**
+ * Headless horde-mode stress scenario.
+ * Fills one room with a configurable number of enemies and projectiles, runs the
+ * same simulation steps as the game loop (everything but input and rendering) and
+ * reports sustained tick time, allocation rate, GC pauses and the AI scheduler's
+ * executed/deferred job counters.
+ * This is the acceptance test for changes to EnemyManager, ProjectileManager
+ * and CollisionSystem.
+ *
+ * Usage: java -cp out HordeStress [enemyCounts...] [--projectiles=N] [--ticks=N]
+ *        [--warmup=N] [--serial] [--seed=N] [--report=file]
+ * Default enemy counts: 100 1000 5000 (projectiles default to the enemy count).
+ */
+public class HordeStress {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    // Scenario settings
+    private final int enemyCount;
+    private final int projectileCount;
+    private final int ticks;
+    private final int warmupTicks;
+    private final boolean parallel;
+    private final Random rng;
+
+    // GC pauses observed while measuring (filled by the notification listener)
+    private final List<Long> gcPausesMs = new ArrayList<>();
+    private volatile boolean measuring;
+
+    public HordeStress(int enemyCount, int projectileCount, int ticks, int warmupTicks, boolean parallel, long seed) {
+        this.enemyCount = enemyCount;
+        this.projectileCount = projectileCount;
+        this.ticks = ticks;
+        this.warmupTicks = warmupTicks;
+        this.parallel = parallel;
+        this.rng = new Random(seed);
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<Integer> counts = new ArrayList<>();
+        int projectiles = -1;
+        int ticks = 600;
+        int warmup = 120;
+        boolean parallel = true;
+        long seed = 42;
+        Path reportPath = null;
+
+        for (String arg : args) {
+            if (arg.startsWith("--projectiles=")) projectiles = Integer.parseInt(arg.substring(14));
+            else if (arg.startsWith("--ticks=")) ticks = Integer.parseInt(arg.substring(8));
+            else if (arg.startsWith("--warmup=")) warmup = Integer.parseInt(arg.substring(9));
+            else if (arg.startsWith("--seed=")) seed = Long.parseLong(arg.substring(7));
+            else if (arg.startsWith("--report=")) reportPath = Paths.get(arg.substring(9));
+            else if (arg.equals("--serial")) parallel = false;
+            else counts.add(Integer.parseInt(arg));
+        }
+        if (counts.isEmpty()) counts.addAll(List.of(100, 1_000, 5_000));
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format(Locale.ROOT, "Horde stress report (%s update, %d ticks, %d warm-up)%n",
+                parallel ? "parallel" : "serial", ticks, warmup));
+        report.append(String.format(Locale.ROOT, "%8s %8s | %9s %9s %9s %9s | %10s | %6s %9s %9s | %8s%n",
+                "enemies", "proj", "avg ms", "p50 ms", "p99 ms", "max ms", "alloc MB/s", "gcs", "gc tot ms", "gc max ms", "respawns"));
+
+        for (int count : counts) {
+            int projectileCount = projectiles >= 0 ? projectiles : count;
+            HordeStress scenario = new HordeStress(count, projectileCount, ticks, warmup, parallel, seed);
+            String line = scenario.run();
+            System.out.print(line);
+            report.append(line);
+        }
+
+        System.out.println();
+        System.out.print(report);
+        if (reportPath != null) {
+            Files.writeString(reportPath, report.toString());
+            System.out.println("Report written to " + reportPath.toAbsolutePath());
+        }
+    }
+
+    // Runs the scenario and returns one formatted report line
+    public String run() {
+        ProjectileManager projectileManager = new ProjectileManager();
+        GameMap gameMap = new GameMap(projectileManager);
+        Room room = gameMap.getCurrentRoom();
+        Player player = new Player(MapDimensions.ROOM_CENTER_X, MapDimensions.ROOM_CENTER_Y, Integer.MAX_VALUE, 1);
+        EnemyManager enemyManager = new EnemyManager();
+        enemyManager.setParallelUpdate(parallel);
+        enemyManager.setEnemies(new ArrayList<>(room.getEnemies()));
+
+        NotificationListener gcListener = installGcListener();
+        long respawns = 0;
+        long[] tickNanos = new long[ticks];
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocStart = 0;
+        long gcCountStart = 0;
+        long gcTimeStart = 0;
+        long wallStart = 0;
+
+        for (int t = -warmupTicks; t < ticks; t++) {
+            if (t == 0) {
+                respawns = 0;
+                enemyManager.getScheduler().resetCounters();
+                allocStart = totalAllocatedBytes(threads);
+                gcCountStart = gcCount();
+                gcTimeStart = gcTime();
+                synchronized (gcPausesMs) { gcPausesMs.clear(); }
+                measuring = true;
+                wallStart = System.nanoTime();
+            }
+
+            respawns += topUp(enemyManager, projectileManager, gameMap, room);
+
+            long start = System.nanoTime();
+            step(player, projectileManager, enemyManager, gameMap, room);
+            long elapsed = System.nanoTime() - start;
+            if (t >= 0) tickNanos[t] = elapsed;
+        }
+
+        measuring = false;
+        removeGcListener(gcListener);
+        double wallSeconds = (System.nanoTime() - wallStart) / 1e9;
+        long allocated = totalAllocatedBytes(threads) - allocStart;
+        long gcs = gcCount() - gcCountStart;
+        long gcTotal = gcTime() - gcTimeStart;
+        long gcMax;
+        synchronized (gcPausesMs) {
+            gcMax = gcPausesMs.stream().mapToLong(Long::longValue).max().orElse(0);
+        }
+
+        long[] sorted = tickNanos.clone();
+        Arrays.sort(sorted);
+        double avgMs = Arrays.stream(tickNanos).average().orElse(0) / 1e6;
+        return String.format(Locale.ROOT, "%8d %8d | %9.3f %9.3f %9.3f %9.3f | %10.1f | %6d %9d %9d | %8d%n",
+                enemyCount, projectileCount,
+                avgMs, percentile(sorted, 0.50) / 1e6, percentile(sorted, 0.99) / 1e6, sorted[sorted.length - 1] / 1e6,
+                allocated / 1e6 / wallSeconds,
+                gcs, gcTotal, gcMax, respawns)
+                + String.format(Locale.ROOT, "%17s %s%n", "", enemyManager.getScheduler().describeCounters());
+    }
+
+    // Same simulation order as GameApp's AnimationTimer, minus input and rendering
+    private void step(Player player, ProjectileManager projectileManager, EnemyManager enemyManager,
+                      GameMap gameMap, Room room) {
+        projectileManager.updateAll();
+        enemyManager.updateAll(player, projectileManager, gameMap);
+        enemyManager.checkProjectileCollisions(projectileManager);
+        for (Enemy dead : enemyManager.removeDeadEnemies()) {
+            room.removeEnemy(dead);
+        }
+        projectileManager.checkPlayerCollisions(player);
+        projectileManager.removeOutOfBounds(room);
+    }
+
+    // Keeps enemy and projectile populations at their target size; returns the number spawned.
+    // Enemies spawn through the room's free-tile index like in the game; once every free tile
+    // is taken, the rest of the horde stacks on random floor tiles.
+    private int topUp(EnemyManager enemyManager, ProjectileManager projectileManager, GameMap gameMap, Room room) {
+        int spawned = 0;
+        while (enemyManager.getEnemies().size() < enemyCount) {
+            Enemy enemy = room.generateRandomEnemy(projectileManager, gameMap, rng);
+            if (enemy == null) {
+                double[] pos = room.randomFloorPosition(rng);
+                enemy = Room.createRandomEnemyAt(pos[0], pos[1], projectileManager, gameMap, rng);
+            }
+            room.addEnemy(enemy);
+            enemyManager.addEnemy(enemy);
+            spawned++;
+        }
+        while (projectileManager.getProjectileCount() < projectileCount) {
+            double[] pos = room.randomFloorPosition(rng);
+            boolean fromPlayer = rng.nextBoolean();
+            projectileManager.addProjectile(new Projectile(pos[0], pos[1], 1, 1.5, MapDimensions.DEFAULT_TEAR_SIZE,
+                    DIRECTIONS[rng.nextInt(DIRECTIONS.length)],
+                    fromPlayer ? ProjectileOwner.PLAYER : ProjectileOwner.ENEMY,
+                    fromPlayer ? ProjectileTarget.ENEMY : ProjectileTarget.PLAYER));
+            spawned++;
+        }
+        return spawned;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    // Bytes allocated by all live threads (fork/join workers included)
+    private static long totalAllocatedBytes(com.sun.management.ThreadMXBean threads) {
+        long total = 0;
+        for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (bytes > 0) total += bytes;
+        }
+        return total;
+    }
+
+    private static long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+
+    private static long gcTime() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    // Records the duration of every GC event while a measurement is running
+    private NotificationListener installGcListener() {
+        NotificationListener listener = (notification, handback) -> {
+            if (!measuring) return;
+            if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) return;
+            GarbageCollectionNotificationInfo info =
+                    GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            synchronized (gcPausesMs) {
+                gcPausesMs.add(info.getGcInfo().getDuration());
+            }
+        };
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(listener, null, null);
+            }
+        }
+        return listener;
+    }
+
+    private static void removeGcListener(NotificationListener listener) {
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter emitter) {
+                try {
+                    emitter.removeNotificationListener(listener);
+                } catch (ListenerNotFoundException ignored) {
+                    // Already detached
+                }
+            }
+        }
+    }
+}
@@ -14,7 +14,20 @@ public final class ItemCatalog {
     }
 
     public static ItemDefinition getRandomItemDefinition() {
-        return ITEMS.get(RNG.nextInt(ITEMS.size()));
+        return getRandomItemDefinition(RNG);
+    }
+
+    // Seeded variant, used for reproducible room content
+    public static ItemDefinition getRandomItemDefinition(Random rng) {
+        return ITEMS.get(rng.nextInt(ITEMS.size()));
+    }
+
+    // Definition with the given id, or null
+    public static ItemDefinition byId(int id) {
+        for (ItemDefinition item : ITEMS) {
+            if (item.getId() == id) return item;
+        }
+        return null;
     }
 
     public static List<ItemDefinition> getAll() {
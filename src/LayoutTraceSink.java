@@ -0,0 +1,50 @@
+import java.nio.file.Paths;
+
+/**
+ * Destination of the debug layout traces written by map generation.
+ * Selected once with the system property hugo.layoutTrace:
+ *   off (default) - nothing is recorded
+ *   file          - appended asynchronously to hugo.layoutTrace.file (logs/layout_trace.txt)
+ *   memory        - last entries kept in an in-memory ring buffer
+ */
+public interface LayoutTraceSink {
+    LayoutTraceSink NONE = new LayoutTraceSink() {
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void record(String entry) {
+        }
+    };
+
+    // False when recording is a no-op, so callers can skip building the trace text
+    boolean isEnabled();
+
+    // Records one trace entry; must not block on I/O
+    void record(String entry);
+
+    // Sink chosen by configuration (shared by every GameMap)
+    static LayoutTraceSink getDefault() {
+        return Holder.DEFAULT;
+    }
+
+    final class Holder {
+        private static final LayoutTraceSink DEFAULT = fromConfig();
+
+        private Holder() {
+        }
+
+        private static LayoutTraceSink fromConfig() {
+            String mode = System.getProperty("hugo.layoutTrace", "off").trim().toLowerCase();
+            return switch (mode) {
+                case "file" -> new AsyncFileTraceSink(
+                        Paths.get(System.getProperty("hugo.layoutTrace.file", "logs/layout_trace.txt")));
+                case "memory" -> new RingBufferTraceSink(
+                        Integer.getInteger("hugo.layoutTrace.capacity", RingBufferTraceSink.DEFAULT_CAPACITY));
+                default -> NONE;
+            };
+        }
+    }
+}
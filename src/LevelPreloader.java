@@ -0,0 +1,55 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Generates the next level's GameMap on a background thread.
+ * Generation is requested when the boss room is entered (or at the latest when
+ * the level transition starts) and the finished map is handed over when the
+ * transition completes, so the render thread never builds a level itself.
+ */
+public class LevelPreloader {
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "level-preloader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private CompletableFuture<GameMap> pending;
+    private int pendingLevel = -1;
+
+    // Starts generating the given level unless it is already being generated
+    public void prefetch(ProjectileManager projectileManager, int level) {
+        if (pending != null && pendingLevel == level) return;
+        cancel();
+        pendingLevel = level;
+        pending = CompletableFuture.supplyAsync(() -> new GameMap(projectileManager, level), executor);
+    }
+
+    // Returns the map for the given level: the prefetched one if available, else built now
+    public GameMap take(ProjectileManager projectileManager, int level) {
+        CompletableFuture<GameMap> future = pending;
+        boolean matches = future != null && pendingLevel == level;
+        pending = null;
+        pendingLevel = -1;
+        if (matches) {
+            try {
+                return future.join(); // Usually already done: the boss fight and video take longer
+            } catch (RuntimeException ex) {
+                System.err.println("Background level generation failed: " + ex.getMessage());
+            }
+        } else if (future != null) {
+            future.cancel(false);
+        }
+        return new GameMap(projectileManager, level);
+    }
+
+    // Drops any pending generation (new game, return to menu)
+    public void cancel() {
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+        pendingLevel = -1;
+    }
+}
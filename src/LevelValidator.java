@@ -0,0 +1,163 @@
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Post-generation reachability check of a level.
+ * Rooms are joined with union-find over their doors; the level is valid when every
+ * room is in the start room's component and, inside each room, every door and the
+ * centre tile (spawn, rewards, trap, items) lie in one flood-filled free area.
+ * Also keeps process-wide counters of generated levels and rejections.
+ */
+public final class LevelValidator {
+    private static final int ROOM_SIZE = MapDimensions.ROOM_SIZE;
+    private static final int DOOR_POS = MapDimensions.DOOR_POSITION;
+    private static final int CENTER = ROOM_SIZE / 2;
+
+    private static final AtomicLong levelsValidated = new AtomicLong();
+    private static final AtomicLong rejectedDisconnected = new AtomicLong();
+    private static final AtomicLong rejectedBlockedRoom = new AtomicLong();
+    private static final AtomicLong validationNanos = new AtomicLong();
+    private static final AtomicLong levelsGenerated = new AtomicLong();
+    private static final AtomicLong regenerations = new AtomicLong();
+    private static final AtomicLong retriesExhausted = new AtomicLong();
+
+    private LevelValidator() {
+        // Utility class
+    }
+
+    // Returns null if the level is fully reachable, otherwise a short reason
+    public static String validate(RoomStore rooms, Room startRoom) {
+        long begin = System.nanoTime();
+        try {
+            String failure = checkRoomGraph(rooms, startRoom);
+            if (failure != null) {
+                rejectedDisconnected.incrementAndGet();
+                return failure;
+            }
+            // Rooms are checked independently, so large levels use the fork-join pool
+            List<Room> all = rooms.rooms();
+            Stream<Room> stream = all.size() >= GameMap.PARALLEL_ROOM_THRESHOLD ? all.parallelStream() : all.stream();
+            Room blocked = stream.filter(room -> !isRoomTraversable(room)).findFirst().orElse(null);
+            if (blocked != null) {
+                rejectedBlockedRoom.incrementAndGet();
+                return blocked.getType() + " room at " + blocked.getX() + "," + blocked.getY()
+                        + " has an unreachable door or centre";
+            }
+            return null;
+        } finally {
+            levelsValidated.incrementAndGet();
+            validationNanos.addAndGet(System.nanoTime() - begin);
+        }
+    }
+
+    // Union-find over door connections (on the store's dense room indices):
+    // every room must share the start room's root
+    private static String checkRoomGraph(RoomStore rooms, Room startRoom) {
+        List<Room> all = rooms.rooms();
+        int[] parent = new int[all.size()];
+        for (int c = 0; c < parent.length; c++) parent[c] = c;
+
+        for (int index = 0; index < all.size(); index++) {
+            Room room = all.get(index);
+            int x = room.getX();
+            int y = room.getY();
+            // Doors are added on both sides, so looking east and south covers every pair
+            int east = rooms.indexOf(x + 1, y);
+            if (east >= 0 && room.hasDoor(Direction.EAST)) union(parent, index, east);
+            int south = rooms.indexOf(x, y + 1);
+            if (south >= 0 && room.hasDoor(Direction.SOUTH)) union(parent, index, south);
+        }
+
+        int startRoot = find(parent, rooms.indexOf(startRoom.getX(), startRoom.getY()));
+        for (int index = 0; index < all.size(); index++) {
+            if (find(parent, index) != startRoot) {
+                Room room = all.get(index);
+                return room.getType() + " room at " + room.getX() + "," + room.getY() + " is not reachable from the start";
+            }
+        }
+        return null;
+    }
+
+    // Flood fill from the centre tile: every door tile of the room must be reached
+    static boolean isRoomTraversable(Room room) {
+        if (room.isTileBlocked(CENTER, CENTER)) return false;
+
+        boolean[] visited = new boolean[ROOM_SIZE * ROOM_SIZE];
+        int[] stack = new int[ROOM_SIZE * ROOM_SIZE];
+        int top = 0;
+        stack[top++] = CENTER * ROOM_SIZE + CENTER;
+        visited[CENTER * ROOM_SIZE + CENTER] = true;
+
+        while (top > 0) {
+            int tile = stack[--top];
+            int tx = tile % ROOM_SIZE;
+            int ty = tile / ROOM_SIZE;
+            top = push(room, visited, stack, top, tx, ty - 1);
+            top = push(room, visited, stack, top, tx, ty + 1);
+            top = push(room, visited, stack, top, tx + 1, ty);
+            top = push(room, visited, stack, top, tx - 1, ty);
+        }
+
+        for (Direction dir : room.getDirections()) {
+            int[] door = doorTile(dir);
+            if (door != null && !visited[door[1] * ROOM_SIZE + door[0]]) return false;
+        }
+        return true;
+    }
+
+    private static int push(Room room, boolean[] visited, int[] stack, int top, int tx, int ty) {
+        if (tx < 0 || tx >= ROOM_SIZE || ty < 0 || ty >= ROOM_SIZE) return top;
+        int tile = ty * ROOM_SIZE + tx;
+        if (visited[tile] || room.isTileBlocked(tx, ty)) return top;
+        visited[tile] = true;
+        stack[top] = tile;
+        return top + 1;
+    }
+
+    // Door tile of a room side (also used by GameMap to open doors)
+    static int[] doorTile(Direction dir) {
+        return switch (dir) {
+            case NORTH -> new int[]{DOOR_POS, 0};
+            case SOUTH -> new int[]{DOOR_POS, ROOM_SIZE - 1};
+            case EAST -> new int[]{ROOM_SIZE - 1, DOOR_POS};
+            case WEST -> new int[]{0, DOOR_POS};
+            default -> null;
+        };
+    }
+
+    private static int find(int[] parent, int c) {
+        while (parent[c] != c) {
+            parent[c] = parent[parent[c]]; // Path halving
+            c = parent[c];
+        }
+        return c;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        parent[find(parent, a)] = find(parent, b);
+    }
+
+    // METRICS
+
+    // Called once per generated level with the number of attempts it took
+    public static void recordGeneration(int attempts, boolean valid) {
+        levelsGenerated.incrementAndGet();
+        regenerations.addAndGet(attempts - 1);
+        if (!valid) retriesExhausted.incrementAndGet();
+    }
+
+    public static long getLevelsGenerated() { return levelsGenerated.get(); }
+    public static long getRegenerations() { return regenerations.get(); }
+    public static long getRetriesExhausted() { return retriesExhausted.get(); }
+
+    public static long getLevelsValidated() { return levelsValidated.get(); }
+    public static long getRejectedDisconnected() { return rejectedDisconnected.get(); }
+    public static long getRejectedBlockedRoom() { return rejectedBlockedRoom.get(); }
+
+    // Mean validation time in microseconds
+    public static double getMeanValidationMicros() {
+        long count = levelsValidated.get();
+        return count == 0 ? 0 : validationNanos.get() / 1e3 / count;
+    }
+}
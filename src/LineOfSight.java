@@ -0,0 +1,80 @@
+import java.util.Arrays;
+
+/**
+ * Line-of-sight queries over the tile occupancy grid of a room.
+ * Walks the tiles between two cells with Bresenham's algorithm and caches every
+ * (from-tile, to-tile) answer, so repeated queries from static enemies are a
+ * single array read. The cache is dropped as soon as the room layout changes.
+ */
+public class LineOfSight {
+    private static final int ROOM_SIZE = MapDimensions.ROOM_SIZE;
+    private static final int TILE_SIZE = MapDimensions.TILE_SIZE;
+    private static final int TILE_COUNT = ROOM_SIZE * ROOM_SIZE;
+
+    private static final byte UNKNOWN = 0;
+    private static final byte VISIBLE = 1;
+    private static final byte BLOCKED = 2;
+
+    private final Room room;
+    private final byte[] cache = new byte[TILE_COUNT * TILE_COUNT];
+    private int cachedLayoutVersion;
+
+    public LineOfSight(Room room) {
+        this.room = room;
+        this.cachedLayoutVersion = room.getLayoutVersion();
+    }
+
+    // Pixel-coordinate variant: true if nothing blocks the segment between the two tiles
+    public boolean hasLineOfSight(double fromX, double fromY, double toX, double toY) {
+        return hasLineOfSight(
+            (int) Math.floor(fromX / TILE_SIZE), (int) Math.floor(fromY / TILE_SIZE),
+            (int) Math.floor(toX / TILE_SIZE), (int) Math.floor(toY / TILE_SIZE));
+    }
+
+    // True if no blocked tile lies between (fromTx,fromTy) and (toTx,toTy), target included
+    public boolean hasLineOfSight(int fromTx, int fromTy, int toTx, int toTy) {
+        if (!isInside(fromTx, fromTy) || !isInside(toTx, toTy)) return false;
+
+        if (cachedLayoutVersion != room.getLayoutVersion()) {
+            Arrays.fill(cache, UNKNOWN);
+            cachedLayoutVersion = room.getLayoutVersion();
+        }
+
+        int key = (fromTy * ROOM_SIZE + fromTx) * TILE_COUNT + (toTy * ROOM_SIZE + toTx);
+        byte cached = cache[key];
+        if (cached != UNKNOWN) return cached == VISIBLE;
+
+        boolean visible = trace(fromTx, fromTy, toTx, toTy);
+        cache[key] = visible ? VISIBLE : BLOCKED;
+        return visible;
+    }
+
+    // Bresenham walk; the starting tile (the viewer's own tile) is not tested
+    private boolean trace(int x0, int y0, int x1, int y1) {
+        int dx = Math.abs(x1 - x0);
+        int dy = -Math.abs(y1 - y0);
+        int sx = x0 < x1 ? 1 : -1;
+        int sy = y0 < y1 ? 1 : -1;
+        int err = dx + dy;
+        int x = x0;
+        int y = y0;
+
+        while (x != x1 || y != y1) {
+            int e2 = 2 * err;
+            if (e2 >= dy) {
+                err += dy;
+                x += sx;
+            }
+            if (e2 <= dx) {
+                err += dx;
+                y += sy;
+            }
+            if (room.isTileBlocked(x, y)) return false;
+        }
+        return true;
+    }
+
+    private static boolean isInside(int tx, int ty) {
+        return tx >= 0 && tx < ROOM_SIZE && ty >= 0 && ty < ROOM_SIZE;
+    }
+}
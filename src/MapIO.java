@@ -2,7 +2,10 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 public class MapIO {
     // Format simple:
@@ -63,6 +66,52 @@ public class MapIO {
         }
 
         if (room == null) room = new Room(type, 0, 0);
+        room.invalidateLayout();
         return room;
     }
+
+    // Parses and validates a prefab file into an immutable layout.
+    // Unlike loadRoom, a file without a type line or with a wall outside the room is rejected.
+    public static RoomPrefab loadPrefab(Path path) throws IOException {
+        List<String> lines = Files.readAllLines(path);
+        RoomType type = null;
+        Set<Direction> doors = EnumSet.noneOf(Direction.class);
+        List<Integer> walls = new ArrayList<>();
+
+        for (String line : lines) {
+            if (line.startsWith("type:")) {
+                type = RoomType.valueOf(line.substring(5).trim());
+            } else if (line.startsWith("doors:")) {
+                String rest = line.substring(6).trim();
+                if (!rest.isEmpty()) {
+                    for (String p : rest.split(",")) {
+                        doors.add(Direction.valueOf(p.trim()));
+                    }
+                }
+            } else if (line.startsWith("wall:")) {
+                String[] parts = line.substring(5).split(",");
+                if (parts.length != 4) {
+                    throw new IllegalArgumentException("malformed wall line '" + line + "'");
+                }
+                int x = Integer.parseInt(parts[0].trim());
+                int y = Integer.parseInt(parts[1].trim());
+                int w = Integer.parseInt(parts[2].trim());
+                int h = Integer.parseInt(parts[3].trim());
+                int size = MapDimensions.ROOM_SIZE;
+                if (x < 0 || y < 0 || w <= 0 || h <= 0 || x + w > size || y + h > size) {
+                    throw new IllegalArgumentException("wall outside the room '" + line + "'");
+                }
+                walls.add(x);
+                walls.add(y);
+                walls.add(w);
+                walls.add(h);
+            }
+        }
+
+        if (type == null) {
+            throw new IllegalArgumentException("missing type line");
+        }
+        int[] packed = walls.stream().mapToInt(Integer::intValue).toArray();
+        return new RoomPrefab(path.getFileName().toString(), type, doors, packed);
+    }
 }
\ No newline at end of file
@@ -155,4 +155,18 @@ public class Player {
     public void clearKeys() {
         keyCount = 0;
     }
+
+    // Restores every saved stat at once (GameSnapshot)
+    void restoreState(double x, double y, int health, int maxHealth, int damage, int atkSpeed,
+                      double tearsSize, int keyCount, boolean alive) {
+        this.x = x;
+        this.y = y;
+        this.health = health;
+        this.maxHealth = maxHealth;
+        this.damage = damage;
+        this.atkSpeed = atkSpeed;
+        this.tearsSize = tearsSize;
+        this.keyCount = keyCount;
+        this.isAlive = alive;
+    }
 }
\ No newline at end of file
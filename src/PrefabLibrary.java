@@ -0,0 +1,244 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * All room prefabs of saved_rooms, parsed and validated once.
+ * Map generation picks layouts from memory, without touching the filesystem.
+ * Files are parsed in parallel; invalid ones (no type line, bad numbers, walls
+ * outside the room) are reported and skipped.
+ * Random prefabs are also indexed by door compatibility: for each of the 16
+ * required-door masks, the list of prefabs whose door tiles are all open.
+ * When the directory holds a PrefabPack at least as recent as the directory
+ * itself and as every .txt file (nothing added, removed or edited since), the
+ * memory-mapped pack is read instead of parsing the text files. A stale pack is
+ * ignored until the converter runs again; editor saves rebuild it.
+ * While the game runs, PrefabWatcher publishes changed files with applyChanges().
+ */
+public final class PrefabLibrary {
+    public static final Path DEFAULT_DIR = Paths.get("saved_rooms");
+    public static final String ITEM_ROOM_ID = "item_room.txt";
+
+    private static volatile PrefabLibrary defaultLibrary;
+
+    private final List<RoomPrefab> all;          // Every prefab, in id order
+    private final Map<String, RoomPrefab> byId;
+    private final List<RoomPrefab> randomPool; // Prefabs eligible for random NORMAL rooms
+    private final List<List<RoomPrefab>> byRequiredDoors; // Index = required door mask
+
+    private PrefabLibrary(List<RoomPrefab> prefabs) {
+        Map<String, RoomPrefab> ids = new HashMap<>();
+        List<RoomPrefab> pool = new ArrayList<>();
+        for (RoomPrefab prefab : prefabs) {
+            ids.put(prefab.getId(), prefab);
+            if (!prefab.getId().equalsIgnoreCase(ITEM_ROOM_ID)) {
+                pool.add(prefab);
+            }
+        }
+        this.all = Collections.unmodifiableList(new ArrayList<>(prefabs));
+        this.byId = Collections.unmodifiableMap(ids);
+        this.randomPool = Collections.unmodifiableList(pool);
+
+        List<List<RoomPrefab>> index = new ArrayList<>(RoomPrefab.ALL_DOORS + 1);
+        for (int required = 0; required <= RoomPrefab.ALL_DOORS; required++) {
+            List<RoomPrefab> compatible = new ArrayList<>();
+            for (RoomPrefab prefab : pool) {
+                if ((prefab.getOpenDoorMask() & required) == required) compatible.add(prefab);
+            }
+            index.add(Collections.unmodifiableList(compatible));
+        }
+        this.byRequiredDoors = Collections.unmodifiableList(index);
+    }
+
+    // Library of saved_rooms, loaded on first use
+    public static PrefabLibrary getDefault() {
+        PrefabLibrary library = defaultLibrary;
+        if (library == null) {
+            synchronized (PrefabLibrary.class) {
+                library = defaultLibrary;
+                if (library == null) {
+                    library = load(DEFAULT_DIR);
+                    defaultLibrary = library;
+                }
+            }
+        }
+        return library;
+    }
+
+    // Re-reads the whole of saved_rooms (PrefabWatcher overflow); maps already generated keep their
+    // layouts. An existing pack is rebuilt from the text files so it never hides a saved prefab.
+    // Synchronized with applyChanges so neither swap can overwrite the other.
+    public static synchronized void reloadDefault() {
+        Path pack = DEFAULT_DIR.resolve(PrefabPack.FILE_NAME);
+        if (!Files.exists(pack)) {
+            defaultLibrary = load(DEFAULT_DIR);
+            return;
+        }
+        PrefabLibrary text = loadText(DEFAULT_DIR);
+        rewritePack(pack, text);
+        defaultLibrary = text;
+    }
+
+    // Re-parses one saved prefab file and publishes it (editor saves when no PrefabWatcher runs)
+    public static void reloadFile(Path file) {
+        RoomPrefab prefab = parseOrNull(file);
+        if (prefab != null) {
+            applyChanges(Map.of(prefab.getId(), prefab), Set.of());
+        }
+    }
+
+    // Publishes a copy of the default library with some prefabs replaced, added or removed
+    // (PrefabWatcher). Readers see either the old or the new library, never a mix; an existing
+    // pack is rebuilt so the next start does not load the old prefabs.
+    public static PrefabLibrary applyChanges(Map<String, RoomPrefab> changed, Set<String> removed) {
+        PrefabLibrary updated;
+        synchronized (PrefabLibrary.class) {
+            updated = getDefault().withChanges(changed, removed);
+            defaultLibrary = updated;
+        }
+        Path pack = DEFAULT_DIR.resolve(PrefabPack.FILE_NAME);
+        if (Files.exists(pack)) {
+            rewritePack(pack, updated);
+        }
+        return updated;
+    }
+
+    private static void rewritePack(Path pack, PrefabLibrary library) {
+        try {
+            PrefabPack.write(pack, library.getAll());
+        } catch (IOException ex) {
+            System.err.println("Could not rebuild " + pack + ": " + ex.getMessage());
+            try {
+                Files.deleteIfExists(pack);
+            } catch (IOException ignored) {
+                // The stale pack is still older than the directory after the next add or remove
+            }
+        }
+    }
+
+    // New library with the given prefabs replaced or added and the given ids dropped, still in id order
+    public PrefabLibrary withChanges(Map<String, RoomPrefab> changed, Set<String> removed) {
+        Map<String, RoomPrefab> merged = new HashMap<>(byId);
+        merged.keySet().removeAll(removed);
+        merged.putAll(changed);
+        List<RoomPrefab> prefabs = new ArrayList<>(merged.values());
+        prefabs.sort(Comparator.comparing(RoomPrefab::getId));
+        return new PrefabLibrary(prefabs);
+    }
+
+    // Loads a directory: its prefab pack if it is up to date, else the .txt files
+    public static PrefabLibrary load(Path dir) {
+        Path pack = dir.resolve(PrefabPack.FILE_NAME);
+        if (isPackCurrent(dir, pack)) {
+            try {
+                return new PrefabLibrary(PrefabPack.read(pack));
+            } catch (IOException | IllegalArgumentException ex) {
+                System.err.println("Ignoring prefab pack " + pack + ": " + ex.getMessage());
+            }
+        }
+        return parseText(listTextPrefabs(dir));
+    }
+
+    // Parses every .txt prefab of a directory, ignoring any pack (used by the converter)
+    public static PrefabLibrary loadText(Path dir) {
+        return parseText(listTextPrefabs(dir));
+    }
+
+    // A missing directory gives no files (and an empty library)
+    private static List<Path> listTextPrefabs(Path dir) {
+        try (Stream<Path> listing = Files.list(dir)) {
+            return listing
+                    .filter(Files::isRegularFile)
+                    .filter(p -> p.toString().toLowerCase().endsWith(".txt"))
+                    .sorted(Comparator.comparing(p -> p.getFileName().toString()))
+                    .collect(Collectors.toList());
+        } catch (IOException ex) {
+            System.err.println("Could not list " + dir + ": " + ex.getMessage());
+            return List.of();
+        }
+    }
+
+    // The pack must be at least as recent as the directory (files added, removed or renamed)
+    // and as every .txt prefab (edited in place, which leaves the directory time unchanged).
+    // One listing with attributes, still far cheaper than parsing the files.
+    private static boolean isPackCurrent(Path dir, Path pack) {
+        try {
+            if (!Files.isRegularFile(pack)) return false;
+            FileTime packTime = Files.getLastModifiedTime(pack);
+            if (packTime.compareTo(Files.getLastModifiedTime(dir)) < 0) return false;
+            try (Stream<Path> newer = Files.find(dir, 1, (p, attrs) -> attrs.isRegularFile()
+                    && p.toString().toLowerCase().endsWith(".txt")
+                    && attrs.lastModifiedTime().compareTo(packTime) > 0)) {
+                return newer.findAny().isEmpty();
+            }
+        } catch (IOException | UncheckedIOException ex) {
+            return false;
+        }
+    }
+
+    private static PrefabLibrary parseText(List<Path> files) {
+        // Sorted file order is kept so a seeded RNG always picks the same prefab
+        List<RoomPrefab> prefabs = files.parallelStream()
+                .map(PrefabLibrary::parseOrNull)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PrefabLibrary(prefabs);
+    }
+
+    // Parsed prefab, or null (reported) if the file is unreadable or invalid
+    static RoomPrefab parseOrNull(Path file) {
+        try {
+            return MapIO.loadPrefab(file);
+        } catch (IOException | IllegalArgumentException ex) {
+            System.err.println("Skipping prefab " + file.getFileName() + ": " + ex.getMessage());
+            return null;
+        }
+    }
+
+    // Random prefab for a NORMAL room, or null if the library is empty
+    public RoomPrefab pickRandom(Random rng) {
+        if (randomPool.isEmpty()) return null;
+        return randomPool.get(rng.nextInt(randomPool.size()));
+    }
+
+    // Random prefab whose door tiles are open on every side of requiredDoors
+    // (mask of RoomPrefab.doorBit), or null if none is compatible
+    public RoomPrefab pickRandom(Random rng, int requiredDoors) {
+        List<RoomPrefab> compatible = byRequiredDoors.get(requiredDoors & RoomPrefab.ALL_DOORS);
+        if (compatible.isEmpty()) return null;
+        return compatible.get(rng.nextInt(compatible.size()));
+    }
+
+    // Number of random prefabs usable with the given required doors
+    public int countCompatible(int requiredDoors) {
+        return byRequiredDoors.get(requiredDoors & RoomPrefab.ALL_DOORS).size();
+    }
+
+    // Prefab by file name, or null
+    public RoomPrefab get(String id) {
+        return byId.get(id);
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    // Every prefab, in id order
+    public List<RoomPrefab> getAll() {
+        return all;
+    }
+}
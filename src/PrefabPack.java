@@ -0,0 +1,176 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Binary pack of room prefabs, read through a memory-mapped file.
+ * Layout (big-endian):
+ *   header  : int magic "HPAK", short version, byte room size, int prefab count
+ *   index   : count x (int record offset, short record length)
+ *   records : short id length, id (UTF-8), byte type ordinal, byte declared door
+ *             mask (RoomPrefab.doorBit), short wall count, then per wall
+ *             byte x, byte y, byte width, byte height
+ * Walls keep the rectangles of the text format (4 bytes each instead of a
+ * "wall:x,y,w,h" line), so a prefab round-trips exactly.
+ *
+ * Usage (text to pack converter): java -cp out PrefabPack [sourceDir] [packFile]
+ */
+public final class PrefabPack {
+    public static final String FILE_NAME = "prefabs.pak";
+    private static final int MAGIC = 0x4850414B; // "HPAK"
+    private static final short VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 2 + 1 + 4;
+    private static final int INDEX_ENTRY_BYTES = 4 + 2;
+    private static final Direction[] CARDINALS = {Direction.NORTH, Direction.SOUTH, Direction.EAST, Direction.WEST};
+
+    private PrefabPack() {
+        // Utility class
+    }
+
+    // Converts the .txt prefabs of a directory into a pack file
+    public static void main(String[] args) throws IOException {
+        Path source = args.length > 0 ? Paths.get(args[0]) : PrefabLibrary.DEFAULT_DIR;
+        Path pack = args.length > 1 ? Paths.get(args[1]) : source.resolve(FILE_NAME);
+        List<RoomPrefab> prefabs = PrefabLibrary.loadText(source).getAll();
+        write(pack, prefabs);
+        System.out.println(prefabs.size() + " prefabs packed into " + pack.toAbsolutePath()
+                + " (" + Files.size(pack) + " bytes)");
+    }
+
+    // Writes the prefabs, in the given order, to a pack file (replaced atomically when possible)
+    public static void write(Path pack, List<RoomPrefab> prefabs) throws IOException {
+        List<byte[]> records = new ArrayList<>(prefabs.size());
+        for (RoomPrefab prefab : prefabs) {
+            records.add(encode(prefab));
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeByte(MapDimensions.ROOM_SIZE);
+        out.writeInt(records.size());
+        int offset = HEADER_BYTES + records.size() * INDEX_ENTRY_BYTES;
+        for (byte[] record : records) {
+            out.writeInt(offset);
+            out.writeShort(record.length);
+            offset += record.length;
+        }
+        for (byte[] record : records) {
+            out.write(record);
+        }
+        out.flush();
+
+        Path dir = pack.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, FILE_NAME, ".tmp");
+        try {
+            Files.write(tmp, bytes.toByteArray());
+            try {
+                Files.move(tmp, pack, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException ex) {
+                Files.move(tmp, pack, StandardCopyOption.REPLACE_EXISTING);
+            }
+            // The move touched the directory: stamp the pack after it so PrefabLibrary sees it as current
+            Files.setLastModifiedTime(pack, FileTime.fromMillis(System.currentTimeMillis()));
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private static byte[] encode(RoomPrefab prefab) throws IOException {
+        byte[] id = prefab.getId().getBytes(StandardCharsets.UTF_8);
+        int[] walls = prefab.packedWalls();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(2 + id.length + 4 + walls.length);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeShort(id.length);
+        out.write(id);
+        out.writeByte(prefab.getType().ordinal());
+        int doorMask = 0;
+        for (Direction dir : prefab.getDoors()) {
+            doorMask |= RoomPrefab.doorBit(dir);
+        }
+        out.writeByte(doorMask);
+        out.writeShort(walls.length / 4);
+        for (int value : walls) {
+            out.writeByte(value);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    // Maps a pack file and decodes every prefab; a corrupt or foreign file is rejected
+    public static List<RoomPrefab> read(Path pack) throws IOException {
+        try (FileChannel channel = FileChannel.open(pack, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+                throw new IOException("not a prefab pack: " + pack);
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new IOException("unsupported prefab pack version " + version);
+            }
+            int roomSize = buffer.get();
+            if (roomSize != MapDimensions.ROOM_SIZE) {
+                throw new IOException("pack built for rooms of " + roomSize + " tiles");
+            }
+            int count = buffer.getInt();
+
+            List<RoomPrefab> prefabs = new ArrayList<>(Math.max(0, count));
+            for (int i = 0; i < count; i++) {
+                int entry = HEADER_BYTES + i * INDEX_ENTRY_BYTES;
+                prefabs.add(decode(buffer, buffer.getInt(entry)));
+            }
+            return prefabs;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException ex) {
+            throw new IOException("truncated prefab pack: " + pack, ex);
+        }
+    }
+
+    private static RoomPrefab decode(MappedByteBuffer buffer, int offset) {
+        buffer.position(offset);
+        byte[] id = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(id);
+        RoomType[] types = RoomType.values();
+        int typeOrdinal = buffer.get();
+        if (typeOrdinal < 0 || typeOrdinal >= types.length) {
+            throw new IllegalArgumentException("bad room type " + typeOrdinal);
+        }
+        int doorMask = buffer.get();
+        Set<Direction> doors = EnumSet.noneOf(Direction.class);
+        for (Direction dir : CARDINALS) {
+            if ((doorMask & RoomPrefab.doorBit(dir)) != 0) doors.add(dir);
+        }
+
+        int[] walls = new int[(buffer.getShort() & 0xFFFF) * 4];
+        int size = MapDimensions.ROOM_SIZE;
+        for (int w = 0; w < walls.length; w += 4) {
+            int x = buffer.get();
+            int y = buffer.get();
+            int width = buffer.get();
+            int height = buffer.get();
+            if (x < 0 || y < 0 || width <= 0 || height <= 0 || x + width > size || y + height > size) {
+                throw new IllegalArgumentException("wall outside the room in " + new String(id, StandardCharsets.UTF_8));
+            }
+            walls[w] = x;
+            walls[w + 1] = y;
+            walls[w + 2] = width;
+            walls[w + 3] = height;
+        }
+        return new RoomPrefab(new String(id, StandardCharsets.UTF_8), types[typeOrdinal], doors, walls);
+    }
+}
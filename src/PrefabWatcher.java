@@ -0,0 +1,139 @@
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Hot reload of the room prefabs: watches saved_rooms with a WatchService and, on a
+ * daemon thread, re-parses only the .txt files that were created, modified or deleted.
+ * The result is published into the default PrefabLibrary in one swap, so the next
+ * generated level uses the new layouts without re-parsing the whole directory.
+ * Events are gathered for DEBOUNCE_MILLIS after the first one (editors write a file in
+ * several steps); a file that does not parse keeps its previous version. If the
+ * watch queue overflows, the whole directory is reloaded.
+ */
+public final class PrefabWatcher implements AutoCloseable {
+    private static final long DEBOUNCE_MILLIS = 200;
+    private static volatile PrefabWatcher active; // Watcher currently publishing into the default library
+
+    private final Path dir;
+    private final WatchService watchService;
+    private final Consumer<Set<String>> onReload; // Called on the watcher thread with the changed ids
+    private final Thread thread;
+    private volatile int reloads;
+
+    private PrefabWatcher(Path dir, WatchService watchService, Consumer<Set<String>> onReload) {
+        this.dir = dir;
+        this.watchService = watchService;
+        this.onReload = onReload;
+        this.thread = new Thread(this::run, "prefab-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    // Starts watching the directory of the default library
+    public static PrefabWatcher start(Consumer<Set<String>> onReload) throws IOException {
+        Path dir = PrefabLibrary.DEFAULT_DIR;
+        Files.createDirectories(dir);
+        WatchService watchService = dir.getFileSystem().newWatchService();
+        dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        PrefabWatcher watcher = new PrefabWatcher(dir, watchService, onReload);
+        watcher.thread.start();
+        active = watcher;
+        return watcher;
+    }
+
+    // True while a watcher keeps the default library in sync with saved_rooms
+    public static boolean isWatching() {
+        PrefabWatcher watcher = active;
+        return watcher != null && watcher.thread.isAlive();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                Set<String> changed = new TreeSet<>();
+                boolean overflow = drain(watchService.take(), changed);
+                WatchKey more;
+                while ((more = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    overflow |= drain(more, changed);
+                }
+                if (overflow) {
+                    PrefabLibrary.reloadDefault();
+                    reloads++;
+                    Set<String> all = new HashSet<>();
+                    for (RoomPrefab prefab : PrefabLibrary.getDefault().getAll()) {
+                        all.add(prefab.getId());
+                    }
+                    onReload.accept(all);
+                } else if (!changed.isEmpty()) {
+                    reload(changed);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ex) {
+            // Closed: the thread ends
+        } catch (RuntimeException ex) {
+            System.err.println("Prefab watcher stopped: " + ex.getMessage());
+        }
+    }
+
+    // Adds the prefab ids of a key's events to changed; true if events were lost
+    private boolean drain(WatchKey key, Set<String> changed) {
+        boolean overflow = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflow = true;
+            } else if (event.context() instanceof Path name && name.toString().toLowerCase().endsWith(".txt")) {
+                changed.add(name.toString());
+            }
+        }
+        key.reset();
+        return overflow;
+    }
+
+    // Re-parses only the changed files and publishes the updated library
+    private void reload(Set<String> ids) {
+        Map<String, RoomPrefab> parsed = new HashMap<>();
+        Set<String> removed = new HashSet<>();
+        for (String id : ids) {
+            Path file = dir.resolve(id);
+            if (!Files.isRegularFile(file)) {
+                removed.add(id);
+                continue;
+            }
+            RoomPrefab prefab = PrefabLibrary.parseOrNull(file);
+            if (prefab != null) parsed.put(id, prefab); // Invalid: the previous version stays
+        }
+        if (parsed.isEmpty() && removed.isEmpty()) return;
+
+        PrefabLibrary.applyChanges(parsed, removed);
+        reloads++;
+        Set<String> changed = new HashSet<>(parsed.keySet());
+        changed.addAll(removed);
+        System.err.println("[DEBUG] Prefabs reloaded: " + changed);
+        onReload.accept(changed);
+    }
+
+    // Number of reloads published so far
+    public int getReloads() {
+        return reloads;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (active == this) active = null;
+        watchService.close();
+        thread.interrupt();
+    }
+}
@@ -7,6 +7,7 @@ public class Projectile {
     private Direction direction;       // Direction of movement
     private ProjectileOwner owner;     // Who fired the projectile (PLAYER or ENEMY)
     private ProjectileTarget target;   // Who is targeted (PLAYER or ENEMY)
+    private boolean markedForRemoval;  // True once the projectile has hit something this tick
 
     public Projectile(double x, double y, int damage, double speed, double size, Direction direction, 
                      ProjectileOwner owner, ProjectileTarget target){
@@ -74,6 +75,15 @@ public class Projectile {
         return target;
     }
 
+    // True if the projectile is waiting to be purged by ProjectileManager.flushRemovals()
+    public boolean isMarkedForRemoval() {
+        return markedForRemoval;
+    }
+
+    void markForRemoval() {
+        this.markedForRemoval = true;
+    }
+
     // Compatibility method for legacy code: returns true if fired by the player
     public boolean isPlayerProjectile() {
         return owner == ProjectileOwner.PLAYER;
@@ -1,4 +1,5 @@
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import javafx.scene.canvas.GraphicsContext;
@@ -9,11 +10,14 @@ import javafx.scene.paint.Color;
  * Handles updating, rendering, collision checks, and removal of projectiles.
  */
 public class ProjectileManager {
-    private List<Projectile> projectiles;
+    private final List<Projectile> projectiles;
+    private final List<Projectile> projectilesView; // Read-only live view handed to scanners
+    private int pendingRemovals; // Projectiles marked this tick but not yet purged
     private Color projectileColor; // Color of the projectiles
 
     public ProjectileManager() {
         this.projectiles = new ArrayList<>();
+        this.projectilesView = Collections.unmodifiableList(projectiles);
         this.projectileColor = Color.BLACK;
     }
 
@@ -52,9 +56,19 @@ public class ProjectileManager {
         }
     }
 
-    // Marks a projectile for removal (removes it from the list)
+    // Marks a projectile for removal; it stays in the list until flushRemovals() runs
     public void markForRemoval(Projectile p) {
-        projectiles.remove(p);
+        if (!p.isMarkedForRemoval()) {
+            p.markForRemoval();
+            pendingRemovals++;
+        }
+    }
+
+    // Purges every projectile marked since the last flush in a single pass
+    public void flushRemovals() {
+        if (pendingRemovals == 0) return;
+        projectiles.removeIf(Projectile::isMarkedForRemoval);
+        pendingRemovals = 0;
     }
 
     // Checks for collisions between projectiles and the player
@@ -73,14 +87,24 @@ public class ProjectileManager {
         }
     }
 
-    // Returns a copy of the current list of projectiles (prevents external modification)
-    public List<Projectile> getProjectiles() {
-        return new ArrayList<>(projectiles); // return a copy to avoid external modification
+    /**
+     * Returns a read-only live view of the projectiles, without copying.
+     * Safe to scan by index while calling markForRemoval(); marked entries stay
+     * visible until flushRemovals(), so scanners should skip isMarkedForRemoval().
+     */
+    public List<Projectile> getProjectilesView() {
+        return projectilesView;
+    }
+
+    // Number of projectiles currently tracked (including ones pending removal)
+    public int getProjectileCount() {
+        return projectiles.size();
     }
 
     // Clears all projectiles (used when entering a new room)
     public void clearProjectiles() {
         projectiles.clear();
+        pendingRemovals = 0;
     }
 
 
@@ -0,0 +1,40 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Layout trace sink keeping the last entries in memory (debugger / tests).
+ * Oldest entries are overwritten once the capacity is reached.
+ */
+public class RingBufferTraceSink implements LayoutTraceSink {
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private final String[] entries;
+    private int next;
+    private int size;
+
+    public RingBufferTraceSink(int capacity) {
+        this.entries = new String[Math.max(1, capacity)];
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public synchronized void record(String entry) {
+        entries[next] = entry;
+        next = (next + 1) % entries.length;
+        if (size < entries.length) size++;
+    }
+
+    // Returns the retained entries, oldest first
+    public synchronized List<String> snapshot() {
+        List<String> result = new ArrayList<>(size);
+        int first = (next - size + entries.length) % entries.length;
+        for (int i = 0; i < size; i++) {
+            result.add(entries[(first + i) % entries.length]);
+        }
+        return result;
+    }
+}
@@ -9,6 +9,11 @@ import java.util.Set;
 /**
  * Represents a single room in the game map.
  * Stores its type, doors, enemies, and completion/door state.
+ * Rooms the player is not in can be made dormant: enemies are packed into a
+ * DormantEnemies snapshot, walls into a (possibly shared) int[] layout, and every
+ * cache is dropped. The room is rehydrated on entry or on first full access.
+ * Content (enemies, boss, item) is only created on first entry, from a per-room
+ * seed, so unvisited rooms hold just their type, layout and seed.
  */
 public class Room {
     private static final boolean TEST_DISABLE_NORMAL_ENEMIES = false;
@@ -29,16 +34,25 @@ public class Room {
     private ProjectileManager projectileManager;
 
     private List<Wall> walls; // existing
-
-    // marque si la room a été chargée depuis un prefab (layout)
-    private boolean prefabLoaded = false;
+    private boolean[] blockedTiles; // Tile occupancy built lazily from walls (index = ty * ROOM_SIZE + tx)
+    private int layoutVersion;      // Bumped every time the wall layout changes
+    private LineOfSight lineOfSight; // Created on first line-of-sight query
+    private SpawnTileIndex spawnTiles; // Free spawn tiles, built on first spawn
+    private String layoutId;        // Prefab the walls come from (null for edited/custom walls)
+    private int openDoorMask = RoomPrefab.ALL_DOORS; // Free door tiles (RoomPrefab.doorBit), -1 = not computed yet
+
+    // Dormant state (walls and enemies are null while dormant)
+    private boolean dormant;
+    private int[] dormantWalls;
+    private DormantEnemies dormantEnemies;
+
+    // Lazy content: created from contentSeed by materialize() on first entry
+    private long contentSeed;
+    private boolean materialized;
 
     // Doors that are currently locked in this room
     private Set<Direction> lockedDoors = EnumSet.noneOf(Direction.class);
 
-    public boolean isPrefabLoaded() { return prefabLoaded; }
-
-
     public Room(RoomType type, int x, int y) {
         this.type = type;
         this.x = x;
@@ -53,14 +67,122 @@ public class Room {
         
     }
 
-    // Copie uniquement le layout (walls) depuis une Room source.
-    public void copyLayoutFrom(Room src) {
-        this.walls.clear();
-        for (Wall w : src.getWalls()) {
-            // copy primitives to avoid partager les mêmes objets
-            this.walls.add(new Wall(w.getX(), w.getY(), w.getWidth(), w.getHeight()));
+    // Replaces the walls with a prefab layout (doors are left to connectRooms)
+    public void applyPrefab(RoomPrefab prefab) {
+        wake();
+        this.walls = RoomLayouts.unpack(prefab.packedWalls());
+        invalidateLayout();
+        this.layoutId = prefab.getId();
+        this.openDoorMask = prefab.getOpenDoorMask();
+    }
+
+    // Must be called after the wall list is modified so cached occupancy and line-of-sight are rebuilt
+    public void invalidateLayout() {
+        blockedTiles = null;
+        spawnTiles = null;
+        layoutId = null;
+        openDoorMask = -1;
+        layoutVersion++;
+    }
+
+    // Door tiles free of walls, as a mask of RoomPrefab.doorBit (cached until the walls change)
+    public int getOpenDoorMask() {
+        int mask = openDoorMask;
+        if (mask < 0) {
+            mask = RoomPrefab.openDoorMask(dormant ? dormantWalls : RoomLayouts.pack(null, walls));
+            openDoorMask = mask;
+        }
+        return mask;
+    }
+
+    public boolean isDoorTileOpen(Direction dir) {
+        return (getOpenDoorMask() & RoomPrefab.doorBit(dir)) != 0;
+    }
+
+    // Prefab id of the current walls (set by applyPrefab, null once the walls are edited)
+    public String getLayoutId() {
+        return layoutId;
+    }
+
+    // DORMANCY
+
+    public boolean isDormant() {
+        return dormant;
+    }
+
+    // Packs enemies and walls and drops every per-room cache (called when the player leaves)
+    public void makeDormant() {
+        if (dormant) return;
+        dormantWalls = RoomLayouts.pack(layoutId, walls);
+        dormantEnemies = DormantEnemies.pack(enemies);
+        walls = null;
+        enemies = null;
+        blockedTiles = null;
+        lineOfSight = null;
+        spawnTiles = null;
+        dormant = true;
+    }
+
+    // Rebuilds walls and enemy objects from the dormant snapshot
+    public void wake() {
+        if (!dormant) return;
+        walls = RoomLayouts.unpack(dormantWalls);
+        enemies = dormantEnemies.unpack(gameMap, contentSeed);
+        dormantWalls = null;
+        dormantEnemies = null;
+        dormant = false;
+        layoutVersion++;
+    }
+
+    public int getLayoutVersion() {
+        return layoutVersion;
+    }
+
+    // Returns the line-of-sight service for this room's layout
+    public LineOfSight getLineOfSight() {
+        if (lineOfSight == null) {
+            lineOfSight = new LineOfSight(this);
         }
-        // Ne PAS copier les doors : on laisse connectRooms gérer l'ouverture en fonction des murs voisins.
+        return lineOfSight;
+    }
+
+    // Builds the lazy occupancy grid and line-of-sight service up front so worker threads only read them
+    public void prepareForConcurrentReads() {
+        getBlockedTiles();
+        getLineOfSight();
+    }
+
+    // Returns true if the tile (tx,ty) is covered by a wall
+    public boolean isTileBlocked(int tx, int ty) {
+        if (tx < 0 || tx >= ROOM_SIZE || ty < 0 || ty >= ROOM_SIZE) {
+            // Outside the occupancy grid: fall back to the wall list
+            if (dormant) return RoomLayouts.blocks(dormantWalls, tx, ty);
+            for (Wall w : walls) {
+                if (w.blocksPosition(tx, ty)) return true;
+            }
+            return false;
+        }
+        return getBlockedTiles()[ty * ROOM_SIZE + tx];
+    }
+
+    private boolean[] getBlockedTiles() {
+        boolean[] tiles = blockedTiles;
+        if (tiles == null) {
+            tiles = new boolean[ROOM_SIZE * ROOM_SIZE];
+            // Dormant rooms answer layout queries (door connection) from the packed walls
+            int[] packed = dormant ? dormantWalls : RoomLayouts.pack(null, walls);
+            for (int i = 0; i < packed.length; i += 4) {
+                int maxX = Math.min(ROOM_SIZE, packed[i] + packed[i + 2]);
+                int maxY = Math.min(ROOM_SIZE, packed[i + 1] + packed[i + 3]);
+                for (int ty = Math.max(0, packed[i + 1]); ty < maxY; ty++) {
+                    for (int tx = Math.max(0, packed[i]); tx < maxX; tx++) {
+                        tiles[ty * ROOM_SIZE + tx] = true;
+                    }
+                }
+            }
+            blockedTiles = tiles;
+        }
+        return tiles;
     }
 
     // check if the position is blocked by a wall
@@ -70,12 +192,7 @@ public class Room {
         int gridY = (int) (worldY / TILE_SIZE);
         
         // Vérifier si la position est dans un mur
-        for (Wall wall : walls) {
-            if (wall.blocksPosition(gridX, gridY)) {
-                return true;
-            }
-        }
-        return false;
+        return isTileBlocked(gridX, gridY);
     }
     
     // check if an area is blocked by a rock
@@ -114,17 +231,31 @@ public class Room {
 
     // Returns an unmodifiable set of enemies (for external read-only access)
     public Set<Enemy> getEnemies() {
+        wake();
         return Collections.unmodifiableSet(enemies);
     }
 
     // Internal modifiable access for enemy generation
     Set<Enemy> getEnemiesInternal() {
+        wake();
         return enemies;
     }
 
     // Adds an enemy to this room
     public void addEnemy(Enemy enemy) {
+        wake();
         enemies.add(enemy);
+        if (spawnTiles != null) {
+            spawnTiles.occupy(enemy);
+        }
+    }
+
+    // Removes an enemy and frees the tile it stands on for future spawns
+    public void removeEnemy(Enemy enemy) {
+        wake();
+        if (enemies.remove(enemy) && spawnTiles != null) {
+            spawnTiles.release(enemy);
+        }
     }
 
     public Reward getRewards() {
@@ -197,9 +328,11 @@ public class Room {
     // ENEMIES
 
     // Simplified setReferences: ne tente plus de charger des fichiers.
-    public void setReferences(GameMap gameMap, ProjectileManager projectileManager) {
+    // Only the layout is finalized here; enemies, boss and item wait for materialize().
+    public void setReferences(GameMap gameMap, ProjectileManager projectileManager, long contentSeed) {
         this.gameMap = gameMap;
         this.projectileManager = projectileManager;
+        this.contentSeed = contentSeed;
 
         if (this.type == RoomType.NORMAL || this.type == RoomType.ITEM) {
             // Si aucun mur n'a été fourni (ni prefabs copiés), créer une bordure par défaut
@@ -209,60 +342,78 @@ public class Room {
                 this.walls.add(new Wall(0, ROOM_SIZE - 1, ROOM_SIZE, 1)); // bottom
                 this.walls.add(new Wall(0, 0, 1, ROOM_SIZE)); // left
                 this.walls.add(new Wall(ROOM_SIZE - 1, 0, 1, ROOM_SIZE)); // right
-            }
-            if (this.type == RoomType.NORMAL && !TEST_DISABLE_NORMAL_ENEMIES) {
-                generateRandomEnemies(projectileManager, gameMap);
-            }
-            if (this.type == RoomType.ITEM && this.itemInstance == null) {
-                this.itemInstance = new ItemInstance(ItemCatalog.getRandomItemDefinition());
-            }
-        } else {
-            if (this.type == RoomType.BOSS) {
-                spawnBoss();
-            } else if (this.type == RoomType.START) {
-                // no enemies by default
+                invalidateLayout();
+                this.layoutId = "default";
             }
         }
     }
 
-    // helper: position de la porte au centre
-    private static final int DOOR_POS = MapDimensions.DOOR_POSITION;
+    public boolean isMaterialized() {
+        return materialized;
+    }
 
-    // Vérifie si une tile (tx,ty) est bloquée par un mur
-    private boolean isTileBlocked(int tx, int ty) {
-        for (Wall w : walls) {
-            if (w.blocksPosition(tx, ty)) return true;
-        }
-        return false;
-    }
-
-    // Vérifie qu'une tile est valide pour spawn (pas mur, pas porte, pas bordure, pas sur un autre ennemi)
-    private boolean isTileValidForSpawn(int tx, int ty) {
-        // éviter bordure
-        if (tx <= 0 || tx >= ROOM_SIZE - 1 || ty <= 0 || ty >= ROOM_SIZE - 1) return false;
-        if (isTileBlocked(tx, ty)) return false;
-        // éviter collision avec autres ennemis (par tile)
-        for (Enemy e : enemies) {
-            int etx = (int) (e.getX() / TILE_SIZE);
-            int ety = (int) (e.getY() / TILE_SIZE);
-            if (etx == tx && ety == ty) return false;
+    public long getContentSeed() {
+        return contentSeed;
+    }
+
+    // Creates the room content on first entry; the same seed always gives the same content
+    public void materialize() {
+        if (materialized) return;
+        materialized = true;
+        wake();
+        Random rng = new Random(contentSeed);
+
+        if (this.type == RoomType.NORMAL && !TEST_DISABLE_NORMAL_ENEMIES) {
+            generateRandomEnemies(projectileManager, gameMap, rng);
+        } else if (this.type == RoomType.ITEM && this.itemInstance == null) {
+            this.itemInstance = new ItemInstance(ItemCatalog.getRandomItemDefinition(rng));
+        } else if (this.type == RoomType.BOSS) {
+            spawnBoss();
         }
-        return true;
+        // START: no enemies by default
     }
 
-    // Retourne toutes les cases libres où un ennemi peut apparaître
-    public List<int[]> getFreeSpawnTiles() {
-        List<int[]> freeTiles = new ArrayList<>();
+    // Walls in packed form, without waking the room (shared array for unedited prefabs)
+    int[] packedWalls() {
+        return dormant ? dormantWalls : RoomLayouts.pack(layoutId, walls);
+    }
 
-        for (int tx = 1; tx < ROOM_SIZE - 1; tx++) {
-            for (int ty = 1; ty < ROOM_SIZE - 1; ty++) {
-                if (isTileValidForSpawn(tx, ty)) {
-                    freeTiles.add(new int[]{tx, ty});
-                }
-            }
+    // Replaces the walls with a saved packed layout (GameSnapshot)
+    void restoreLayout(String savedLayoutId, int[] packed) {
+        wake();
+        this.walls = RoomLayouts.unpack(packed);
+        invalidateLayout();
+        this.layoutId = savedLayoutId;
+    }
+
+    // Enemies in their compact form, without waking the room
+    DormantEnemies snapshotEnemies() {
+        return dormant ? dormantEnemies : DormantEnemies.pack(enemies);
+    }
+
+    // Rebuilds an already visited room from saved state instead of fresh content
+    // (the item is drawn from the same seed as in materialize(), so it is the same one)
+    void restoreVisited(DormantEnemies savedEnemies, boolean completed, boolean itemCollected) {
+        wake();
+        materialized = true;
+        if (this.type == RoomType.ITEM && this.itemInstance == null) {
+            this.itemInstance = new ItemInstance(ItemCatalog.getRandomItemDefinition(new Random(contentSeed)));
+            if (itemCollected) this.itemInstance.collect();
         }
+        this.enemies = savedEnemies.unpack(gameMap, contentSeed);
+        this.spawnTiles = null;
+        this.isCompleted = completed;
+    }
+
+    // helper: position de la porte au centre
+    private static final int DOOR_POS = MapDimensions.DOOR_POSITION;
 
-        return freeTiles;
+    // Index des cases libres (pas mur, pas bordure, pas sur un autre ennemi), construit une seule fois
+    private SpawnTileIndex getSpawnTileIndex() {
+        if (spawnTiles == null) {
+            spawnTiles = new SpawnTileIndex(this);
+        }
+        return spawnTiles;
     }
 
     // Convertit une case en position pixel centrée sur cette case
@@ -273,35 +424,73 @@ public class Room {
     }
     
     // génère un ennemi à une case libre en utilisant un RNG partagé
+    // (la case choisie est retirée de l'index des cases libres)
     public Enemy generateRandomEnemy(ProjectileManager projectileManager, GameMap gameMap, Random rng) {
-        List<int[]> freeTiles = getFreeSpawnTiles();
-        if (freeTiles.isEmpty()) {
+        Random effectiveRng = (rng != null) ? rng : new Random();
+        int tile = getSpawnTileIndex().takeRandom(effectiveRng);
+        if (tile < 0) {
             return null;
         }
 
-        Random effectiveRng = (rng != null) ? rng : new Random();
-        int[] tile = freeTiles.get(effectiveRng.nextInt(freeTiles.size()));
-        double[] spawnPosition = getTileCenterPosition(tile[0], tile[1]);
+        double[] spawnPosition = getTileCenterPosition(SpawnTileIndex.tileX(tile), SpawnTileIndex.tileY(tile));
+        Enemy enemy = createRandomEnemyAt(spawnPosition[0], spawnPosition[1], projectileManager, gameMap, effectiveRng);
+        getSpawnTileIndex().assign(enemy, tile);
+        return enemy;
+    }
+
+    // Centre of a random wall-free inner tile, even if an enemy already stands there
+    // (hordes larger than the free tiles), or null if the room has no floor
+    public double[] randomFloorPosition(Random rng) {
+        int tile = getSpawnTileIndex().randomFloorTile(rng);
+        if (tile < 0) return null;
+        return getTileCenterPosition(SpawnTileIndex.tileX(tile), SpawnTileIndex.tileY(tile));
+    }
+
+    // Moves the enemies a re-applied layout put inside a wall onto free tiles; enemies that
+    // find no free tile are dropped. Returns how many enemies were moved or dropped.
+    int relocateBlockedEnemies(Random rng) {
+        wake();
+        int changed = 0;
+        for (java.util.Iterator<Enemy> it = enemies.iterator(); it.hasNext(); ) {
+            Enemy enemy = it.next();
+            if (CollisionSystem.canEnemyMoveTo(enemy.getX(), enemy.getY(), this)) continue;
+            SpawnTileIndex index = getSpawnTileIndex();
+            index.release(enemy);
+            int tile = index.takeRandom(rng);
+            if (tile < 0) {
+                it.remove();
+            } else {
+                double[] position = getTileCenterPosition(SpawnTileIndex.tileX(tile), SpawnTileIndex.tileY(tile));
+                enemy.setPosition(position[0], position[1]);
+                index.assign(enemy, tile);
+            }
+            changed++;
+        }
+        return changed;
+    }
 
-        int numRandom = effectiveRng.nextInt(3);
+    // Crée un ennemi de type aléatoire à une position pixel donnée
+    // (son générateur d'IA est tiré de rng, donc de la graine de la salle)
+    public static Enemy createRandomEnemyAt(double x, double y, ProjectileManager projectileManager, GameMap gameMap, Random rng) {
+        int numRandom = rng.nextInt(3);
+        long seed = rng.nextLong();
         switch (numRandom) {
             case 0:
-                return new Wanderer(spawnPosition[0], spawnPosition[1], 3, 1, 1.0, gameMap);
+                return EnemyKind.WANDERER.create(x, y, gameMap, seed);
             case 1:
                 if (projectileManager != null) {
-                    return new StaticShooter(spawnPosition[0], spawnPosition[1], 3, 1, projectileManager);
+                    return EnemyKind.STATIC_SHOOTER.create(x, y, gameMap, seed);
                 }
-                return new Wanderer(spawnPosition[0], spawnPosition[1], 3, 1, 1.0, gameMap);
+                return EnemyKind.WANDERER.create(x, y, gameMap, seed);
             case 2:
-                return new Follower(spawnPosition[0], spawnPosition[1], 3, 1, 0.5, gameMap);
+                return EnemyKind.FOLLOWER.create(x, y, gameMap, seed);
             default:
                 return null;
         }
     }
 
     // génère plusieurs ennemis en utilisant la fonction ci‑dessus
-    private void generateRandomEnemies(ProjectileManager projectileManager, GameMap gameMap) {
-        Random rng = new Random();
+    private void generateRandomEnemies(ProjectileManager projectileManager, GameMap gameMap, Random rng) {
         int numEnemies = 2 + rng.nextInt(4); // 2 à 5 ennemis
 
         for (int i = 0; i < numEnemies; i++) {
@@ -378,6 +567,7 @@ public class Room {
 
     // WALLS
     public List<Wall> getWalls() {
+        wake();
         return walls;
     }
 
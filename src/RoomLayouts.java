@@ -0,0 +1,100 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Packed wall layouts shared by dormant rooms.
+ * A layout is an int[] of (x, y, width, height) quadruples. Unedited prefab
+ * layouts reuse the PrefabLibrary array and other named layouts are interned by
+ * id, so every dormant room built from the same layout points to one array.
+ */
+public final class RoomLayouts {
+    private static final Map<String, int[]> SHARED = new ConcurrentHashMap<>();
+
+    private RoomLayouts() {
+        // Utility class
+    }
+
+    // Packs a wall list; when layoutId is set, returns the shared array for that id
+    public static int[] pack(String layoutId, List<Wall> walls) {
+        // Unedited prefab rooms reuse the library's own array
+        RoomPrefab prefab = layoutId != null ? PrefabLibrary.getDefault().get(layoutId) : null;
+        if (prefab != null && matches(prefab.packedWalls(), walls)) return prefab.packedWalls();
+
+        int[] packed = new int[walls.size() * 4];
+        int i = 0;
+        for (Wall w : walls) {
+            packed[i++] = w.getX();
+            packed[i++] = w.getY();
+            packed[i++] = w.getWidth();
+            packed[i++] = w.getHeight();
+        }
+        if (layoutId == null) return packed;
+
+        int[] shared = SHARED.putIfAbsent(layoutId, packed);
+        // A prefab edited since it was first interned keeps its own copy
+        return (shared == null || !Arrays.equals(shared, packed)) ? packed : shared;
+    }
+
+    private static boolean matches(int[] packed, List<Wall> walls) {
+        if (packed.length != walls.size() * 4) return false;
+        int i = 0;
+        for (Wall w : walls) {
+            if (packed[i++] != w.getX() || packed[i++] != w.getY()
+                    || packed[i++] != w.getWidth() || packed[i++] != w.getHeight()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Rebuilds a mutable wall list from a packed layout
+    public static List<Wall> unpack(int[] packed) {
+        List<Wall> walls = new ArrayList<>(packed.length / 4);
+        for (int i = 0; i < packed.length; i += 4) {
+            walls.add(new Wall(packed[i], packed[i + 1], packed[i + 2], packed[i + 3]));
+        }
+        return walls;
+    }
+
+    // Plain border with the door tile left open on each side of doorMask (RoomPrefab.doorBit):
+    // the fallback when no prefab fits a room, so its doors stay usable
+    public static int[] borderWithDoors(int doorMask) {
+        int last = MapDimensions.ROOM_SIZE - 1;
+        int door = MapDimensions.DOOR_POSITION;
+        int[] walls = new int[8 * 4];
+        int n = 0;
+        n = side(walls, n, (doorMask & RoomPrefab.doorBit(Direction.NORTH)) != 0, door, true, 0);
+        n = side(walls, n, (doorMask & RoomPrefab.doorBit(Direction.SOUTH)) != 0, door, true, last);
+        n = side(walls, n, (doorMask & RoomPrefab.doorBit(Direction.WEST)) != 0, door, false, 0);
+        n = side(walls, n, (doorMask & RoomPrefab.doorBit(Direction.EAST)) != 0, door, false, last);
+        return Arrays.copyOf(walls, n);
+    }
+
+    // One side of the border (row at y = line, or column at x = line), split around the door tile if open
+    private static int side(int[] walls, int n, boolean open, int door, boolean horizontal, int line) {
+        int size = MapDimensions.ROOM_SIZE;
+        int[][] spans = open ? new int[][]{{0, door}, {door + 1, size - door - 1}} : new int[][]{{0, size}};
+        for (int[] span : spans) {
+            if (span[1] <= 0) continue;
+            walls[n++] = horizontal ? span[0] : line;
+            walls[n++] = horizontal ? line : span[0];
+            walls[n++] = horizontal ? span[1] : 1;
+            walls[n++] = horizontal ? 1 : span[1];
+        }
+        return n;
+    }
+
+    // True if the packed layout covers the tile (tx,ty)
+    public static boolean blocks(int[] packed, int tx, int ty) {
+        for (int i = 0; i < packed.length; i += 4) {
+            if (tx >= packed[i] && tx < packed[i] + packed[i + 2]
+                    && ty >= packed[i + 1] && ty < packed[i + 1] + packed[i + 3]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,61 @@
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Immutable room layout loaded from a prefab file.
+ * Walls are stored packed as (x, y, width, height) quadruples and shared by every
+ * room built from this prefab until that room's walls are edited.
+ * The open door tiles are summarized as a 4-bit mask (see doorBit), computed once.
+ */
+public final class RoomPrefab {
+    public static final int ALL_DOORS = 0b1111;
+
+    private final String id;              // File name, e.g. "room1.txt"
+    private final RoomType type;
+    private final Set<Direction> doors;
+    private final int[] packedWalls;
+    private final int openDoorMask;       // Door tiles not covered by a wall
+
+    public RoomPrefab(String id, RoomType type, Set<Direction> doors, int[] packedWalls) {
+        this.id = id;
+        this.type = type;
+        this.doors = doors.isEmpty()
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(EnumSet.copyOf(doors));
+        this.packedWalls = packedWalls.clone();
+        this.openDoorMask = openDoorMask(this.packedWalls);
+    }
+
+    // Bit of a cardinal direction in a door mask (0 for diagonals)
+    public static int doorBit(Direction dir) {
+        return switch (dir) {
+            case NORTH -> 1;
+            case SOUTH -> 2;
+            case EAST -> 4;
+            case WEST -> 8;
+            default -> 0;
+        };
+    }
+
+    // Mask of the door tiles left free by a packed wall layout
+    static int openDoorMask(int[] packedWalls) {
+        int mask = 0;
+        for (Direction dir : new Direction[]{Direction.NORTH, Direction.SOUTH, Direction.EAST, Direction.WEST}) {
+            int[] tile = LevelValidator.doorTile(dir);
+            if (!RoomLayouts.blocks(packedWalls, tile[0], tile[1])) mask |= doorBit(dir);
+        }
+        return mask;
+    }
+
+    public String getId() { return id; }
+    public RoomType getType() { return type; }
+    public Set<Direction> getDoors() { return doors; }
+    public int getWallCount() { return packedWalls.length / 4; }
+    public int getOpenDoorMask() { return openDoorMask; }
+
+    // Shared packed walls; callers must not modify the array
+    int[] packedWalls() {
+        return packedWalls;
+    }
+}
@@ -0,0 +1,110 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sparse store of the rooms of a dungeon grid.
+ * Rooms are keyed by packed (x, y) coordinates, kept in a dense list (insertion
+ * order, which also gives each room a stable index) and indexed by RoomType, so
+ * memory and scans scale with the number of rooms, not with the grid area.
+ * An unbounded store (endless mode) accepts any int coordinates and supports
+ * removal; removing swaps the last room into the freed index.
+ */
+public class RoomStore {
+    private final int gridSize;
+    private final Map<Long, Integer> indexByKey = new HashMap<>();
+    private final List<Room> rooms = new ArrayList<>();
+    private final Map<RoomType, List<Room>> byType = new EnumMap<>(RoomType.class);
+
+    public RoomStore(int gridSize) {
+        this.gridSize = gridSize;
+    }
+
+    // Store without grid bounds (endless mode)
+    public static RoomStore unbounded() {
+        return new RoomStore(-1);
+    }
+
+    // Packs grid coordinates into one key
+    public static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    // Grid size, or -1 for an unbounded store
+    public int getGridSize() {
+        return gridSize;
+    }
+
+    public boolean isInside(int x, int y) {
+        return gridSize < 0 || (x >= 0 && x < gridSize && y >= 0 && y < gridSize);
+    }
+
+    // Adds a room at its own coordinates (replacing nothing: the cell must be empty)
+    public void put(Room room) {
+        long key = key(room.getX(), room.getY());
+        if (indexByKey.containsKey(key)) {
+            throw new IllegalStateException("Cell " + room.getX() + "," + room.getY() + " already holds a room");
+        }
+        indexByKey.put(key, rooms.size());
+        rooms.add(room);
+        byType.computeIfAbsent(room.getType(), t -> new ArrayList<>()).add(room);
+    }
+
+    // Room at (x, y), or null (also null outside the grid)
+    public Room get(int x, int y) {
+        if (!isInside(x, y)) return null;
+        Integer index = indexByKey.get(key(x, y));
+        return index != null ? rooms.get(index) : null;
+    }
+
+    // Dense index of the room at (x, y), or -1
+    public int indexOf(int x, int y) {
+        if (!isInside(x, y)) return -1;
+        Integer index = indexByKey.get(key(x, y));
+        return index != null ? index : -1;
+    }
+
+    // Removes the room at (x, y) and returns it, or null; the last room takes its index
+    public Room remove(int x, int y) {
+        Integer index = indexByKey.remove(key(x, y));
+        if (index == null) return null;
+        Room removed = rooms.get(index);
+        Room last = rooms.remove(rooms.size() - 1);
+        if (last != removed) {
+            rooms.set(index, last);
+            indexByKey.put(key(last.getX(), last.getY()), index);
+        }
+        byType.get(removed.getType()).remove(removed);
+        return removed;
+    }
+
+    // Every room, in insertion order (until the first removal)
+    public List<Room> rooms() {
+        return Collections.unmodifiableList(rooms);
+    }
+
+    // Rooms of a given type, in insertion order
+    public List<Room> ofType(RoomType type) {
+        List<Room> list = byType.get(type);
+        return list != null ? Collections.unmodifiableList(list) : Collections.emptyList();
+    }
+
+    // First room of a given type, or null
+    public Room first(RoomType type) {
+        List<Room> list = byType.get(type);
+        return (list == null || list.isEmpty()) ? null : list.get(0);
+    }
+
+    public int size() {
+        return rooms.size();
+    }
+
+    public void clear() {
+        indexByKey.clear();
+        rooms.clear();
+        byType.clear();
+    }
+}
@@ -0,0 +1,85 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Row/column index of the stationary shooters of the active room.
+ * Shooters never move, so they are bucketed once by tile row and tile column.
+ * When the player's tile row or column changes, only the shooters of the old and
+ * new row/column are notified (disarmed/armed); every other shooter stays idle.
+ */
+public class ShooterAlignmentIndex {
+    private static final int ROOM_SIZE = MapDimensions.ROOM_SIZE;
+    private static final int TILE_SIZE = MapDimensions.TILE_SIZE;
+
+    private final List<List<StaticShooter>> byRow = new ArrayList<>();
+    private final List<List<StaticShooter>> byColumn = new ArrayList<>();
+    private int playerRow = -1;
+    private int playerColumn = -1;
+
+    public ShooterAlignmentIndex() {
+        for (int i = 0; i < ROOM_SIZE; i++) {
+            byRow.add(new ArrayList<>());
+            byColumn.add(new ArrayList<>());
+        }
+    }
+
+    // Re-buckets the shooters of the given enemy list (used when the enemy list changes)
+    public void rebuild(List<Enemy> enemies) {
+        for (int i = 0; i < ROOM_SIZE; i++) {
+            byRow.get(i).clear();
+            byColumn.get(i).clear();
+        }
+        for (Enemy enemy : enemies) {
+            if (enemy instanceof StaticShooter shooter && shooter.isAlive()) {
+                add(shooter);
+            }
+        }
+        // Force the next player update to re-arm the current row and column
+        playerRow = -1;
+        playerColumn = -1;
+    }
+
+    // Adds a single shooter to its row and column buckets
+    public void add(StaticShooter shooter) {
+        shooter.setRowAligned(false);
+        shooter.setColumnAligned(false);
+        int column = toTile(shooter.getX());
+        int row = toTile(shooter.getY());
+        if (row >= 0) byRow.get(row).add(shooter);
+        if (column >= 0) byColumn.get(column).add(shooter);
+        if (row >= 0 && row == playerRow) shooter.setRowAligned(true);
+        if (column >= 0 && column == playerColumn) shooter.setColumnAligned(true);
+    }
+
+    // Notifies only the affected buckets when the player's tile row or column changes
+    public void onPlayerMoved(double playerX, double playerY) {
+        int row = toTile(playerY);
+        int column = toTile(playerX);
+
+        if (row != playerRow) {
+            if (playerRow >= 0) {
+                for (StaticShooter shooter : byRow.get(playerRow)) shooter.setRowAligned(false);
+            }
+            if (row >= 0) {
+                for (StaticShooter shooter : byRow.get(row)) shooter.setRowAligned(true);
+            }
+            playerRow = row;
+        }
+
+        if (column != playerColumn) {
+            if (playerColumn >= 0) {
+                for (StaticShooter shooter : byColumn.get(playerColumn)) shooter.setColumnAligned(false);
+            }
+            if (column >= 0) {
+                for (StaticShooter shooter : byColumn.get(column)) shooter.setColumnAligned(true);
+            }
+            playerColumn = column;
+        }
+    }
+
+    // Pixel coordinate -> tile index, or -1 outside the room grid
+    private static int toTile(double pixel) {
+        int tile = (int) Math.floor(pixel / TILE_SIZE);
+        return (tile >= 0 && tile < ROOM_SIZE) ? tile : -1;
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ * Converts wall-clock time into fixed simulation ticks (60 per second).
+ * Logic driven by ticks runs at the same speed whatever the display refresh rate;
+ * a long gap (room not active, window paused) is clamped so it never causes a burst.
+ */
+public class SimulationClock {
+    public static final int TICKS_PER_SECOND = 60;
+    public static final long TICK_NANOS = 1_000_000_000L / TICKS_PER_SECOND;
+    private static final int MAX_CATCH_UP_TICKS = 5;
+
+    private long lastTickTime = -1; // Time of the last whole tick, or -1 before the first call
+    private long totalTicks;
+
+    // Returns the number of whole ticks elapsed since the previous call (0 on the first call)
+    public int advance(long now) {
+        if (lastTickTime < 0) {
+            lastTickTime = now;
+            return 0;
+        }
+        long elapsed = (now - lastTickTime) / TICK_NANOS;
+        if (elapsed <= 0) return 0;
+        if (elapsed > MAX_CATCH_UP_TICKS) {
+            // Drop the backlog instead of replaying it
+            lastTickTime = now;
+            elapsed = MAX_CATCH_UP_TICKS;
+        } else {
+            lastTickTime += elapsed * TICK_NANOS;
+        }
+        totalTicks += elapsed;
+        return (int) elapsed;
+    }
+
+    public long getTotalTicks() {
+        return totalTicks;
+    }
+}
@@ -0,0 +1,122 @@
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Set of the inner tiles of a room where an enemy may still spawn.
+ * Built once from the layout, then kept up to date in O(1) as enemies are placed
+ * or removed: tiles live in a dense array with a reverse position table, so a
+ * random pick is one array read plus a swap-remove.
+ * Each enemy holds the tile it was placed on, not the one it stands on now:
+ * enemies move, and releasing their current tile would free the wrong one.
+ * Tiles are packed as ty * ROOM_SIZE + tx.
+ */
+public class SpawnTileIndex {
+    private static final int ROOM_SIZE = MapDimensions.ROOM_SIZE;
+
+    private final boolean[] spawnable; // Inner, wall-free tiles (independent of occupancy)
+    private final int[] tiles;         // Free tiles, dense in [0, size)
+    private final int[] positionOf;    // Index of a tile in tiles[], or -1 if not free
+    private final int[] floor;         // Every spawnable tile, dense in [0, floorSize)
+    private final Map<Enemy, Integer> heldTiles = new IdentityHashMap<>(); // Tile taken by each enemy
+    private int size;
+    private int floorSize;
+
+    // Builds the index from the room's walls, excluding the tiles already taken by its enemies
+    public SpawnTileIndex(Room room) {
+        spawnable = new boolean[ROOM_SIZE * ROOM_SIZE];
+        tiles = new int[ROOM_SIZE * ROOM_SIZE];
+        positionOf = new int[ROOM_SIZE * ROOM_SIZE];
+        floor = new int[ROOM_SIZE * ROOM_SIZE];
+        Arrays.fill(positionOf, -1);
+
+        for (int ty = 1; ty < ROOM_SIZE - 1; ty++) {
+            for (int tx = 1; tx < ROOM_SIZE - 1; tx++) {
+                if (!room.isTileBlocked(tx, ty)) {
+                    int tile = pack(tx, ty);
+                    spawnable[tile] = true;
+                    floor[floorSize++] = tile;
+                    add(tile);
+                }
+            }
+        }
+        for (Enemy enemy : room.getEnemies()) {
+            occupy(enemy);
+        }
+    }
+
+    public static int pack(int tx, int ty) {
+        return ty * ROOM_SIZE + tx;
+    }
+
+    public static int tileX(int tile) {
+        return tile % ROOM_SIZE;
+    }
+
+    public static int tileY(int tile) {
+        return tile / ROOM_SIZE;
+    }
+
+    // Picks a random free tile and removes it from the set; returns -1 if none is left
+    public int takeRandom(Random rng) {
+        if (size == 0) return -1;
+        int tile = tiles[rng.nextInt(size)];
+        remove(tile);
+        return tile;
+    }
+
+    // Random spawnable tile, free or not (crowds larger than the room); -1 if the room has no floor
+    public int randomFloorTile(Random rng) {
+        if (floorSize == 0) return -1;
+        return floor[rng.nextInt(floorSize)];
+    }
+
+    // Records that an enemy was placed on a tile returned by takeRandom()
+    public void assign(Enemy enemy, int tile) {
+        heldTiles.put(enemy, tile);
+    }
+
+    // Takes the tile under an enemy placed from outside the index, if that tile is still free
+    public void occupy(Enemy enemy) {
+        if (heldTiles.containsKey(enemy)) return;
+        int tile = tileAt(enemy.getX(), enemy.getY());
+        if (tile >= 0 && positionOf[tile] >= 0) {
+            remove(tile);
+            heldTiles.put(enemy, tile);
+        }
+    }
+
+    // Gives the tile an enemy was placed on back to the free set, wherever the enemy is now
+    public void release(Enemy enemy) {
+        Integer tile = heldTiles.remove(enemy);
+        if (tile != null && spawnable[tile]) add(tile);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void add(int tile) {
+        if (positionOf[tile] >= 0) return;
+        tiles[size] = tile;
+        positionOf[tile] = size;
+        size++;
+    }
+
+    private void remove(int tile) {
+        int pos = positionOf[tile];
+        if (pos < 0) return;
+        int last = tiles[--size];
+        tiles[pos] = last;
+        positionOf[last] = pos;
+        positionOf[tile] = -1;
+    }
+
+    private static int tileAt(double x, double y) {
+        int tx = (int) (x / MapDimensions.TILE_SIZE);
+        int ty = (int) (y / MapDimensions.TILE_SIZE);
+        if (tx < 0 || tx >= ROOM_SIZE || ty < 0 || ty >= ROOM_SIZE) return -1;
+        return pack(tx, ty);
+    }
+}
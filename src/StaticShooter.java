@@ -3,60 +3,95 @@ import javafx.scene.paint.Color;
 
 /**
  * Enemy that stays in place and shoots at the player when aligned horizontally or vertically.
+ * Firing is EnemyManager's shooting system, which reads the armed flag, line-of-sight
+ * expiry and shot cooldown from the EnemyStore; this class keeps the alignment
+ * bookkeeping, the line-of-sight job and the projectile it fires.
  */
 public class StaticShooter extends Enemy {
-    private static final long SHOOT_COOLDOWN = 2_000_000_000; // 2 seconds in nanoseconds
-    private long lastShotTime = 0;
-    private final ProjectileManager projectileManager;
+    static final long SHOOT_COOLDOWN = 2_000_000_000; // 2 seconds in nanoseconds
+    private static final long SIGHT_INTERVAL = 100_000_000;   // Line-of-sight refresh while armed
+    private static final long SIGHT_TTL = 300_000_000;        // Older results are not trusted to shoot
+    private boolean rowAligned;    // Player is on this shooter's tile row
+    private boolean columnAligned; // Player is on this shooter's tile column
+    private long sightCheckedAt = Long.MIN_VALUE / 2;
+    private long sightUntil;       // Kept here too so a slot rebuild does not forget the last check
 
-    public StaticShooter(double x, double y, int health, int damage, ProjectileManager projectileManager) {
+    public StaticShooter(double x, double y, int health, int damage) {
         super(x, y, health, damage, 0);
-        this.projectileManager = projectileManager;
     }
 
+    // Requests a line-of-sight check while armed; the AIScheduler runs it within its budget
     @Override
-    public void update(Player player, ProjectileManager projectileManager, GameMap gameMap) {
-        if (isAlive){
-            // Shoot if perfectly aligned horizontally or vertically (with 10px tolerance)
-            double deltaX = Math.abs(this.x - player.getX());
-            double deltaY = Math.abs(this.y - player.getY());
+    public void scheduleWork(AIScheduler scheduler, Player player, long now) {
+        if (isArmed() && now - sightCheckedAt >= SIGHT_INTERVAL) {
+            scheduler.submit(this, AIScheduler.JobType.LINE_OF_SIGHT);
+        }
+    }
 
-            if (deltaX < 10 || deltaY < 10) {
-                shootAtPlayer(player); 
-            }
+    // A clear line is trusted for SIGHT_TTL by the shooting system; a blocked one stops fire at once
+    @Override
+    public void runScheduledJob(AIScheduler.JobType type, Player player, GameMap gameMap) {
+        if (type != AIScheduler.JobType.LINE_OF_SIGHT) return;
+        Room room = gameMap.getCurrentRoom();
+        boolean inSight = room == null || room.getLineOfSight().hasLineOfSight(getX(), getY(), player.getX(), player.getY());
+        sightCheckedAt = System.nanoTime();
+        sightUntil = inSight ? sightCheckedAt + SIGHT_TTL : 0;
+        if (getStore() != null) {
+            getStore().setSightUntil(getSlot(), sightUntil);
         }
     }
 
-    // Shoots a projectile at the player if cooldown has passed
-    private void shootAtPlayer(Player player) {
-        long currentTime = System.nanoTime();
-        if (currentTime - lastShotTime >= SHOOT_COOLDOWN) {
-            Direction direction;
-            
-            // Calculate which axis is closer to the player
-            double deltaX = Math.abs(player.getX() - this.x);
-            double deltaY = Math.abs(player.getY() - this.y);
-            
-            // Shoot along the axis where the player is closer
-            if (deltaX < deltaY) {
-                // Closer horizontally → shoot vertically
-                direction = player.getY() > this.y ? Direction.SOUTH : Direction.NORTH;
-            } else {
-                // Closer vertically → shoot horizontally  
-                direction = player.getX() > this.x ? Direction.EAST : Direction.WEST;
-            }
-            
-            Projectile projectile = new Projectile(this.x, this.y, damage, 2.0, 10.0, direction, 
-                                                  ProjectileOwner.ENEMY,    // Fired by enemy
-                                                  ProjectileTarget.PLAYER); // Targets the player
-            projectileManager.addProjectile(projectile);
-            lastShotTime = currentTime;
+    // ALIGNMENT (driven by ShooterAlignmentIndex)
+
+    public boolean isArmed() {
+        return rowAligned || columnAligned;
+    }
+
+    void setRowAligned(boolean rowAligned) {
+        this.rowAligned = rowAligned;
+        publishArmed();
+    }
+
+    void setColumnAligned(boolean columnAligned) {
+        this.columnAligned = columnAligned;
+        publishArmed();
+    }
+
+    @Override
+    protected void onAttached(EnemyStore store, int slot) {
+        store.setSightUntil(slot, sightUntil);
+        publishArmed();
+    }
+
+    private void publishArmed() {
+        if (getStore() != null) getStore().setArmed(getSlot(), isArmed());
+    }
+
+    // Projectile fired from (x, y) along the axis where the player is closer
+    static Projectile shotAt(double x, double y, int damage, Player player) {
+        Direction direction;
+
+        // Calculate which axis is closer to the player
+        double deltaX = Math.abs(player.getX() - x);
+        double deltaY = Math.abs(player.getY() - y);
+
+        // Shoot along the axis where the player is closer
+        if (deltaX < deltaY) {
+            // Closer horizontally → shoot vertically
+            direction = player.getY() > y ? Direction.SOUTH : Direction.NORTH;
+        } else {
+            // Closer vertically → shoot horizontally
+            direction = player.getX() > x ? Direction.EAST : Direction.WEST;
         }
+
+        return new Projectile(x, y, damage, 2.0, 10.0, direction,
+                              ProjectileOwner.ENEMY,    // Fired by enemy
+                              ProjectileTarget.PLAYER); // Targets the player
     }
 
     @Override
     public void render(GraphicsContext gc, double screenX, double screenY, double tileSize) {
-        if (isAlive) {
+        if (isAlive()) {
             Color shooterColor = Color.RED;
             gc.setFill(shooterColor);
             double size = tileSize * MapDimensions.ENEMY_RENDER_SCALE;
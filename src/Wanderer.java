@@ -1,80 +1,74 @@
+import java.util.Random;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.paint.Color;
 
 /**
  * Enemy that moves randomly in one direction and changes direction periodically or on collision.
  * Deals contact damage to the player if close enough.
+ * The straight-line movement runs in EnemyManager's wander system over the EnemyStore;
+ * the periodic heading change is a TARGET_SELECTION job.
  */
 public class Wanderer extends Enemy {
-    private Direction currentDirection;
-    private long lastDirectionChange = 0;
     private static final long DIRECTION_CHANGE_INTERVAL = 1_000_000_000; // 1 second in nanoseconds
     private GameMap gameMap; // Reference to the game map for collision checks
     private static final double CONTACT_RANGE = 10.0; // Distance to deal damage to player
-    private static final long ATTACK_COOLDOWN = 1_000_000_000; // 1 second in nanoseconds
-    private long lastAttackTime = 0;
+    private final Random rng; // Own generator for every heading pick, seeded from the room content
+    private static final Direction[] HEADINGS = {Direction.NORTH, Direction.SOUTH, Direction.EAST, Direction.WEST};
 
-    public Wanderer(double x, double y, int health, int damage, double speed, GameMap gameMap) {
+    public Wanderer(double x, double y, int health, int damage, double speed, GameMap gameMap, long seed) {
         super(x, y, health, damage, speed);
         this.gameMap = gameMap;
-        chooseRandomDirection();
+        this.rng = new Random(seed);
+        setHeading(HEADINGS[rng.nextInt(HEADINGS.length)].ordinal());
     }
 
+    // Requests a new heading once the current one is stale; the AIScheduler runs it within its budget
     @Override
-    public void update(Player player, ProjectileManager projectileManager, GameMap gameMap) {
-        if (isAlive) {
-            long currentTime = System.nanoTime();
-            // Change direction periodically
-            if (currentTime - lastDirectionChange >= DIRECTION_CHANGE_INTERVAL) {
-                chooseRandomDirection();
-                lastDirectionChange = currentTime;
-            }
-
-            // Move in the current direction
-            double newX = this.x;
-            double newY = this.y;
+    public void scheduleWork(AIScheduler scheduler, Player player, long now) {
+        if (now - getAiTimer() >= DIRECTION_CHANGE_INTERVAL) {
+            scheduler.submit(this, AIScheduler.JobType.TARGET_SELECTION);
+        }
+    }
 
-            switch(currentDirection) {
-                case NORTH -> newY = this.y - speed;
-                case SOUTH -> newY = this.y + speed;
-                case EAST -> newX = this.x + speed;
-                case WEST -> newX = this.x - speed;
-            }
+    // Picks a random heading among those whose next step is free (any heading if all are blocked)
+    @Override
+    public void runScheduledJob(AIScheduler.JobType type, Player player, GameMap gameMap) {
+        if (type != AIScheduler.JobType.TARGET_SELECTION) return;
+        Room room = gameMap.getCurrentRoom();
+        double x = getX();
+        double y = getY();
+        double speed = getSpeed();
+        Direction[] open = new Direction[4];
+        int count = 0;
+        for (Direction direction : HEADINGS) {
+            double nx = direction == Direction.EAST ? x + speed : direction == Direction.WEST ? x - speed : x;
+            double ny = direction == Direction.SOUTH ? y + speed : direction == Direction.NORTH ? y - speed : y;
+            if (room == null || CollisionSystem.canEnemyMoveTo(nx, ny, room)) open[count++] = direction;
+        }
+        Direction next = count > 0 ? open[rng.nextInt(count)] : HEADINGS[rng.nextInt(HEADINGS.length)];
+        setHeading(next.ordinal());
+        setAiTimer(System.nanoTime());
+    }
 
-            // Check collisions before moving
-            if (CollisionSystem.canEnemyMoveTo(newX, newY, gameMap.getCurrentRoom())) {
-                this.x = newX;
-                this.y = newY;
-            } else {
-                // If collision with a wall, change direction immediately
-                chooseRandomDirection();
-                lastDirectionChange = currentTime;
-            }
+    // Random heading after a wall hit (wander system). Each wanderer draws from its own
+    // generator, so the result does not depend on the worker thread that moves it.
+    int randomHeading() {
+        return HEADINGS[rng.nextInt(HEADINGS.length)].ordinal();
+    }
 
-            // Deal contact damage to the player if close enough and cooldown has passed
-            double distance = Math.hypot(player.getX() - this.x, player.getY() - this.y);
-            if (distance <= CONTACT_RANGE) {
-                if (currentTime - lastAttackTime >= ATTACK_COOLDOWN) {
-                    player.takeDamage(damage);
-                    lastAttackTime = currentTime;
-                }
-            }
-        }
+    // Contact damage is applied by EnemyManager's contact system
+    @Override
+    public double getContactRange() {
+        return CONTACT_RANGE;
     }
 
     @Override
     public void render(GraphicsContext gc, double screenX, double screenY, double tileSize) {
-        if (isAlive) {
+        if (isAlive()) {
             Color wandererColor = Color.PINK;
             gc.setFill(wandererColor);
             double size = tileSize * MapDimensions.ENEMY_RENDER_SCALE;
             gc.fillOval(screenX - size / 2, screenY - size / 2, size, size);
         }
     }
-
-    // Chooses a new random direction for the wanderer
-    private void chooseRandomDirection() {
-        Direction[] directions = {Direction.NORTH, Direction.SOUTH, Direction.EAST, Direction.WEST};
-        currentDirection = directions[(int)(Math.random() * 4)];
-    }
 }